@@ -1,9 +1,9 @@
 package br.insper.aposta.aposta;
 
+import br.insper.aposta.common.CampeonatoClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.List;
 import java.util.UUID;
@@ -14,13 +14,14 @@ public class ApostaService {
     @Autowired
     private ApostaRepository apostaRepository;
 
+    @Autowired
+    private CampeonatoClient campeonatoClient;
+
     public void salvar(Aposta aposta) {
         aposta.setId(UUID.randomUUID().toString());
 
-        RestTemplate restTemplate = new RestTemplate();
-        ResponseEntity<RetornarPartidaDTO> partida = restTemplate.getForEntity(
-                "http://localhost:8080/partida/" + aposta.getIdPartida(),
-                RetornarPartidaDTO.class);
+        ResponseEntity<RetornarPartidaDTO> partida = campeonatoClient.get(
+                "/partida/{id}", RetornarPartidaDTO.class, aposta.getIdPartida());
 
         if (partida.getStatusCode().is2xxSuccessful())  {
             apostaRepository.save(aposta);
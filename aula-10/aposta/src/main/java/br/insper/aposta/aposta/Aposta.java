@@ -4,12 +4,25 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+// a liquidacao de uma partida filtra por idPartida e status. A listagem
+// segue em ordem de (dataAposta, _id); cada filtro de igualdade tem um indice
+// com ele na frente e a ordem da listagem atras, entao filtro, faixa de data e
+// ordenacao saem todos do indice
 @Document
+@CompoundIndexes({
+        @CompoundIndex(name = "idx_aposta_partida_status", def = "{'idPartida': 1, 'status': 1}"),
+        @CompoundIndex(name = "idx_aposta_partida_data_id", def = "{'idPartida': 1, 'dataAposta': 1, '_id': 1}"),
+        @CompoundIndex(name = "idx_aposta_status_data_id", def = "{'status': 1, 'dataAposta': 1, '_id': 1}"),
+        @CompoundIndex(name = "idx_aposta_resultado_data_id", def = "{'resultado': 1, 'dataAposta': 1, '_id': 1}"),
+        @CompoundIndex(name = "idx_aposta_data_id", def = "{'dataAposta': 1, '_id': 1}")
+})
 @Getter
 @Setter
 public class Aposta {
@@ -1,9 +1,18 @@
 package br.insper.aposta.aposta;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/aposta")
@@ -12,9 +21,44 @@ public class ApostaController {
     @Autowired
     private ApostaService apostaService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
-    public List<Aposta> listar() {
-        return apostaService.listar();
+    public PaginaApostaDTO listar(@RequestParam(required = false) Integer idPartida,
+                                  @RequestParam(required = false) String status,
+                                  @RequestParam(required = false) String resultado,
+                                  @RequestParam(required = false)
+                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+                                  @RequestParam(required = false)
+                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+                                  @RequestParam(required = false) String depoisDe,
+                                  @RequestParam(defaultValue = "100") Integer limite) {
+        return apostaService.listar(new FiltroAposta(idPartida, status, resultado, de, ate), depoisDe, limite);
+    }
+
+    // uma aposta por linha, escrita conforme o cursor do mongo entrega; nada
+    // da resposta fica acumulado na memoria
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportar(@RequestParam(required = false) Integer idPartida,
+                                                          @RequestParam(required = false) String status,
+                                                          @RequestParam(required = false) String resultado,
+                                                          @RequestParam(required = false)
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+                                                          @RequestParam(required = false)
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate) {
+        FiltroAposta filtro = new FiltroAposta(idPartida, status, resultado, de, ate);
+        ObjectWriter writer = objectMapper.writerFor(Aposta.class);
+        StreamingResponseBody corpo = saida -> {
+            try (Stream<Aposta> apostas = apostaService.exportar(filtro)) {
+                Iterator<Aposta> iterator = apostas.iterator();
+                while (iterator.hasNext()) {
+                    saida.write(writer.writeValueAsBytes(iterator.next()));
+                    saida.write('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(corpo);
     }
 
     @PostMapping
@@ -22,6 +66,11 @@ public class ApostaController {
         return apostaService.salvar(aposta);
     }
 
+    @PostMapping("/conferir")
+    public List<Aposta> conferirApostas() {
+        return apostaService.conferirApostas();
+    }
+
     @GetMapping("/{idAposta}")
     public Aposta getAposta(@PathVariable String idAposta) {
         return apostaService.getAposta(idAposta);
@@ -1,12 +1,25 @@
 package br.insper.aposta.aposta;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface ApostaRepository extends MongoRepository<Aposta, String> {
+public interface ApostaRepository extends MongoRepository<Aposta, String>, ApostaRepositoryCustom {
 
     List<Aposta> findByResultado(String resultado);
+
+    List<Aposta> findByStatus(String status);
+
+    // updates em massa, um por desfecho: nenhuma aposta sai do mongo
+    @Query("{ 'idPartida': ?0, 'status': 'REALIZADA', 'resultado': ?1 }")
+    @Update("{ '$set': { 'status': 'GANHOU' } }")
+    long marcarGanhadoras(Integer idPartida, String resultado);
+
+    @Query("{ 'idPartida': ?0, 'status': 'REALIZADA' }")
+    @Update("{ '$set': { 'status': 'PERDEU' } }")
+    long marcarPerdedoras(Integer idPartida);
 }
@@ -0,0 +1,11 @@
+package br.insper.aposta.aposta;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ApostaRepositoryCustom {
+
+    List<Aposta> listar(FiltroAposta filtro, String depoisDe, int limite);
+
+    Stream<Aposta> exportar(FiltroAposta filtro);
+}
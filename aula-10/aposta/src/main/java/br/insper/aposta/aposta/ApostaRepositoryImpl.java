@@ -0,0 +1,80 @@
+package br.insper.aposta.aposta;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class ApostaRepositoryImpl implements ApostaRepositoryCustom {
+
+    private static final int LOTE_CURSOR = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // seek por (dataAposta, _id): a pagina seguinte comeca depois da ultima
+    // aposta recebida, entao o mongo anda pelo indice em vez de pular as paginas
+    // anteriores. O cursor continua sendo so o id; a data vem da propria aposta
+    @Override
+    public List<Aposta> listar(FiltroAposta filtro, String depoisDe, int limite) {
+        Criteria criteria = getCriteria(filtro);
+        if (depoisDe != null) {
+            Aposta ultima = mongoTemplate.findById(depoisDe, Aposta.class);
+            if (ultima == null) {
+                throw new ApostaNaoEncontradaException("Aposta do cursor não encontrada");
+            }
+            criteria.orOperator(getDepoisDe(ultima));
+        }
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "dataAposta", "id"))
+                .limit(limite);
+        return mongoTemplate.find(query, Aposta.class);
+    }
+
+    // cursor do mongo lido em lotes; quem chama fecha o stream
+    @Override
+    public Stream<Aposta> exportar(FiltroAposta filtro) {
+        Query query = Query.query(getCriteria(filtro)).cursorBatchSize(LOTE_CURSOR);
+        return mongoTemplate.stream(query, Aposta.class);
+    }
+
+    // o que vem depois da aposta na ordem (dataAposta, _id). Aposta sem data
+    // (anterior a dataAposta existir) ordena antes de todas as outras
+    static Criteria[] getDepoisDe(Aposta ultima) {
+        if (ultima.getDataAposta() == null) {
+            return new Criteria[]{
+                    Criteria.where("dataAposta").is(null).and("id").gt(ultima.getId()),
+                    Criteria.where("dataAposta").ne(null)};
+        }
+        return new Criteria[]{
+                Criteria.where("dataAposta").is(ultima.getDataAposta()).and("id").gt(ultima.getId()),
+                Criteria.where("dataAposta").gt(ultima.getDataAposta())};
+    }
+
+    static Criteria getCriteria(FiltroAposta filtro) {
+        Criteria criteria = new Criteria();
+        if (filtro.idPartida() != null) {
+            criteria.and("idPartida").is(filtro.idPartida());
+        }
+        if (filtro.status() != null) {
+            criteria.and("status").is(filtro.status());
+        }
+        if (filtro.resultado() != null) {
+            criteria.and("resultado").is(filtro.resultado());
+        }
+        if (filtro.de() != null || filtro.ate() != null) {
+            Criteria data = criteria.and("dataAposta");
+            if (filtro.de() != null) {
+                data.gte(filtro.de());
+            }
+            if (filtro.ate() != null) {
+                data.lt(filtro.ate());
+            }
+        }
+        return criteria;
+    }
+}
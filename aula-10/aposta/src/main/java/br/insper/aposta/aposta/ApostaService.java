@@ -2,21 +2,31 @@ package br.insper.aposta.aposta;
 
 import br.insper.aposta.partida.PartidaNaoEncontradaException;
 import br.insper.aposta.partida.PartidaNaoRealizadaException;
+import br.insper.aposta.partida.PartidaRealizadaEvent;
 import br.insper.aposta.partida.PartidaService;
 import br.insper.aposta.partida.RetornarPartidaDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 public class ApostaService {
 
+    private static final Logger log = LoggerFactory.getLogger(ApostaService.class);
+
+    private static final int LIMITE_MAXIMO = 1000;
+
     @Autowired
     private ApostaRepository apostaRepository;
 
@@ -39,8 +49,20 @@ public class ApostaService {
 
     }
 
-    public List<Aposta> listar() {
-        return apostaRepository.findAll();
+    // uma pagina por vez, em ordem de data da aposta; o cliente manda o
+    // proximo recebido como depoisDe para pedir a pagina seguinte
+    public PaginaApostaDTO listar(FiltroAposta filtro, String depoisDe, Integer limite) {
+        limite = limite == null ? LIMITE_MAXIMO : Math.clamp(limite, 1, LIMITE_MAXIMO);
+
+        List<Aposta> apostas = apostaRepository.listar(filtro, depoisDe, limite);
+        String proximo = apostas.size() < limite ? null : apostas.getLast().getId();
+        return new PaginaApostaDTO(apostas, proximo);
+    }
+
+    // todas as apostas do filtro, lidas do cursor do mongo conforme sao
+    // consumidas; quem chama fecha o stream
+    public Stream<Aposta> exportar(FiltroAposta filtro) {
+        return apostaRepository.exportar(filtro);
     }
 
     public Aposta getAposta(String idAposta) {
@@ -63,22 +85,7 @@ public class ApostaService {
             RetornarPartidaDTO partidaDTO = partida.getBody();
 
             if (partidaDTO.getStatus().equals("REALIZADA")) {
-
-                if (aposta.getResultado().equals("EMPATE") && partidaDTO.isEmpate()) {
-                    aposta.setStatus("GANHOU");
-                }
-
-                if (aposta.getResultado().equals("VITORIA_MANDANTE") && partidaDTO.isVitoriaMandante()) {
-                    aposta.setStatus("GANHOU");
-                }
-
-                if (aposta.getResultado().equals("EMPATE") && partidaDTO.isVitoriaVisitante()) {
-                    aposta.setStatus("GANHOU");
-                }
-
-                if (aposta.getStatus().equals("REALIZADA")) {
-                    aposta.setStatus("PERDEU");
-                }
+                conferir(aposta, partidaDTO);
             } else {
                 throw new PartidaNaoRealizadaException("Partida não realizada");
             }
@@ -89,4 +96,63 @@ public class ApostaService {
         }
 
     }
+
+    // confere todas as apostas em aberto; as partidas sao consultadas em
+    // paralelo, uma vez cada, e as apostas de partidas ainda nao realizadas
+    // continuam em aberto
+    public List<Aposta> conferirApostas() {
+        List<Aposta> apostas = apostaRepository.findByStatus("REALIZADA");
+
+        Map<Integer, RetornarPartidaDTO> partidas = partidaService.getPartidas(
+                apostas.stream().map(Aposta::getIdPartida).toList());
+
+        List<Aposta> conferidas = new ArrayList<>();
+        for (Aposta aposta : apostas) {
+            RetornarPartidaDTO partida = partidas.get(aposta.getIdPartida());
+            if (partida != null && "REALIZADA".equals(partida.getStatus())) {
+                conferir(aposta, partida);
+                conferidas.add(aposta);
+            }
+        }
+        return apostaRepository.saveAll(conferidas);
+    }
+
+    // liquida todas as apostas em aberto da partida sem carregar nenhuma: um
+    // update em massa marca as ganhadoras e outro marca o resto como perdedoras.
+    // Os dois filtram por status REALIZADA (indice idPartida+status), entao
+    // reprocessar o mesmo evento nao muda nada
+    @EventListener
+    public void liquidar(PartidaRealizadaEvent evento) {
+        RetornarPartidaDTO partida = evento.partida();
+        String resultado = "EMPATE";
+        if (partida.isVitoriaMandante()) {
+            resultado = "VITORIA_MANDANTE";
+        } else if (partida.isVitoriaVisitante()) {
+            resultado = "VITORIA_VISITANTE";
+        }
+
+        long ganharam = apostaRepository.marcarGanhadoras(evento.idPartida(), resultado);
+        long perderam = apostaRepository.marcarPerdedoras(evento.idPartida());
+        if (ganharam + perderam > 0) {
+            log.info("Partida {} liquidada: {} apostas ganharam, {} perderam", evento.idPartida(), ganharam, perderam);
+        }
+    }
+
+    private void conferir(Aposta aposta, RetornarPartidaDTO partidaDTO) {
+        if (aposta.getResultado().equals("EMPATE") && partidaDTO.isEmpate()) {
+            aposta.setStatus("GANHOU");
+        }
+
+        if (aposta.getResultado().equals("VITORIA_MANDANTE") && partidaDTO.isVitoriaMandante()) {
+            aposta.setStatus("GANHOU");
+        }
+
+        if (aposta.getResultado().equals("VITORIA_VISITANTE") && partidaDTO.isVitoriaVisitante()) {
+            aposta.setStatus("GANHOU");
+        }
+
+        if (aposta.getStatus().equals("REALIZADA")) {
+            aposta.setStatus("PERDEU");
+        }
+    }
 }
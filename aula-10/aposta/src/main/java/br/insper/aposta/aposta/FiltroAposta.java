@@ -0,0 +1,9 @@
+package br.insper.aposta.aposta;
+
+import java.time.LocalDateTime;
+
+// filtros de GET /aposta e /aposta/exportar; campo nulo nao filtra. A data
+// vai de de (inclusive) ate ate (exclusive)
+public record FiltroAposta(Integer idPartida, String status, String resultado,
+                           LocalDateTime de, LocalDateTime ate) {
+}
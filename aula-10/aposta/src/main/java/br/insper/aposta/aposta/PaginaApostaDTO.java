@@ -0,0 +1,7 @@
+package br.insper.aposta.aposta;
+
+import java.util.List;
+
+// proximo e o cursor da pagina seguinte (o id da ultima aposta), nulo na ultima
+public record PaginaApostaDTO(List<Aposta> apostas, String proximo) {
+}
@@ -0,0 +1,157 @@
+package br.insper.aposta.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.channels.ClosedByInterruptException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// toda chamada ao campeonato passa por aqui. O bulkhead limita quantas chamadas
+// ficam penduradas no campeonato ao mesmo tempo e o circuit breaker corta as
+// chamadas quando ele esta fora, entao um campeonato lento nao prende as
+// threads do aposta. Erro 4xx e resposta do campeonato, nao conta como falha;
+// 5xx, timeout e conexao recusada contam.
+//
+// Chamadas de lote (getLote) so ocupam ate max-chamadas-lote vagas do
+// bulkhead, que tem que ser menor que max-chamadas-simultaneas: o resto fica
+// garantido para as chamadas avulsas, que esperam pouco, e um lote grande nao
+// as faz falhar enquanto roda
+@Component
+public class CampeonatoClient {
+
+    private final RestTemplate restTemplate;
+
+    private final Semaphore chamadas;
+
+    private final Semaphore chamadasLote;
+
+    private final long esperaBulkhead;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final Counter rejeitadasBulkhead;
+
+    private final Counter rejeitadasCircuito;
+
+    public CampeonatoClient(RestTemplate restTemplate, MeterRegistry meterRegistry,
+                            @Value("${campeonato.max-chamadas-simultaneas:50}") int maxChamadas,
+                            @Value("${campeonato.max-chamadas-lote:25}") int maxChamadasLote,
+                            @Value("${campeonato.espera-bulkhead:100}") long esperaBulkhead,
+                            @Value("${campeonato.circuit-breaker.falhas:5}") int falhasParaAbrir,
+                            @Value("${campeonato.circuit-breaker.tempo-aberto:10000}") long tempoAberto) {
+        if (maxChamadasLote < 1 || maxChamadasLote >= maxChamadas) {
+            throw new IllegalArgumentException(
+                    "campeonato.max-chamadas-lote tem que ficar entre 1 e campeonato.max-chamadas-simultaneas - 1");
+        }
+        this.restTemplate = restTemplate;
+        this.chamadas = new Semaphore(maxChamadas);
+        this.chamadasLote = new Semaphore(maxChamadasLote);
+        this.esperaBulkhead = esperaBulkhead;
+        this.circuitBreaker = new CircuitBreaker(falhasParaAbrir, tempoAberto);
+
+        Gauge.builder("campeonato.bulkhead.disponiveis", chamadas, Semaphore::availablePermits)
+                .register(meterRegistry);
+        Gauge.builder("campeonato.bulkhead.lote.disponiveis", chamadasLote, Semaphore::availablePermits)
+                .register(meterRegistry);
+        // 0 fechado, 1 meio aberto, 2 aberto
+        Gauge.builder("campeonato.circuit-breaker.estado", circuitBreaker, cb -> cb.getEstado().ordinal())
+                .register(meterRegistry);
+        rejeitadasBulkhead = Counter.builder("campeonato.rejeitadas").tag("motivo", "bulkhead")
+                .register(meterRegistry);
+        rejeitadasCircuito = Counter.builder("campeonato.rejeitadas").tag("motivo", "circuito")
+                .register(meterRegistry);
+    }
+
+    // uri relativa a campeonato.url, com variaveis: "/partida/{id}". O template
+    // vira a tag uri da metrica, entao nao concatenar o id na uri
+    public <T> ResponseEntity<T> get(String uri, Class<T> tipo, Object... variaveis) {
+        return chamar(TimeUnit.MILLISECONDS.toNanos(esperaBulkhead), uri, tipo, variaveis);
+    }
+
+    // uma busca de um lote em paralelo. espera e o que resta do prazo do lote:
+    // as buscas alem do limite do lote esperam a vez em vez de falhar
+    public <T> ResponseEntity<T> getLote(long espera, String uri, Class<T> tipo, Object... variaveis) {
+        long prazo = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(espera);
+        adquirir(chamadasLote, TimeUnit.MILLISECONDS.toNanos(espera));
+        try {
+            return chamar(prazo - System.nanoTime(), uri, tipo, variaveis);
+        } finally {
+            chamadasLote.release();
+        }
+    }
+
+    private <T> ResponseEntity<T> chamar(long espera, String uri, Class<T> tipo, Object... variaveis) {
+        adquirir(chamadas, espera);
+        try {
+            if (!circuitBreaker.permitir()) {
+                rejeitadasCircuito.increment();
+                throw new CampeonatoIndisponivelException("Campeonato fora do ar, circuito aberto");
+            }
+            boolean sucesso = false;
+            Throwable falha = null;
+            try {
+                ResponseEntity<T> resposta = restTemplate.getForEntity(uri, tipo, variaveis);
+                sucesso = true;
+                return resposta;
+            } catch (HttpClientErrorException e) {
+                sucesso = true;
+                throw e;
+            } catch (RestClientException e) {
+                falha = e;
+                throw new CampeonatoIndisponivelException("Erro ao consultar o campeonato", e);
+            } catch (Throwable e) {
+                falha = e;
+                throw e;
+            } finally {
+                // toda saida registra alguma coisa, senao o circuito meio aberto
+                // ficaria esperando a chamada de teste. Chamada cancelada por quem
+                // chamou (prazo do lote) nao diz nada sobre o campeonato
+                if (sucesso) {
+                    circuitBreaker.registrarSucesso();
+                } else if (isCancelada(falha)) {
+                    circuitBreaker.registrarCancelamento();
+                } else {
+                    circuitBreaker.registrarFalha();
+                }
+            }
+        } finally {
+            chamadas.release();
+        }
+    }
+
+    private void adquirir(Semaphore vagas, long espera) {
+        try {
+            if (!vagas.tryAcquire(espera, TimeUnit.NANOSECONDS)) {
+                rejeitadasBulkhead.increment();
+                throw new CampeonatoIndisponivelException("Chamadas demais em andamento para o campeonato");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CampeonatoIndisponivelException("Chamada ao campeonato interrompida", e);
+        }
+    }
+
+    private static boolean isCancelada(Throwable falha) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable causa = falha; causa != null; causa = causa.getCause()) {
+            if (causa instanceof InterruptedException || causa instanceof ClosedByInterruptException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public CircuitBreaker.Estado getEstadoCircuito() {
+        return circuitBreaker.getEstado();
+    }
+}
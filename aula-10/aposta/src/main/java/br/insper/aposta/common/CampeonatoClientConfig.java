@@ -0,0 +1,65 @@
+package br.insper.aposta.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+@Configuration
+public class CampeonatoClientConfig {
+
+    // conexoes keep-alive reaproveitadas entre as chamadas ao campeonato. Um
+    // host so, entao o limite por rota e o limite total
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager campeonatoConnectionManager(
+            MeterRegistry meterRegistry,
+            @Value("${campeonato.pool.max-conexoes:50}") int maxConexoes,
+            @Value("${campeonato.timeout-conexao:1000}") long timeoutConexao,
+            @Value("${campeonato.timeout-leitura:2000}") long timeoutLeitura) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConexoes)
+                .setMaxConnPerRoute(maxConexoes)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(timeoutConexao))
+                        .setSocketTimeout(Timeout.ofMilliseconds(timeoutLeitura))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        // httpcomponents.httpclient.pool.*: conexoes em uso, livres e pedidos esperando
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "campeonato").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    // o builder do spring boot registra http.client.requests por uri template
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder builder,
+                                     PoolingHttpClientConnectionManager campeonatoConnectionManager,
+                                     @Value("${campeonato.url:http://campeonato:8080}") String url,
+                                     @Value("${campeonato.timeout-leitura:2000}") long timeoutLeitura,
+                                     @Value("${campeonato.pool.espera-conexao:500}") long esperaConexao) {
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(campeonatoConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(esperaConexao))
+                        .setResponseTimeout(Timeout.ofMilliseconds(timeoutLeitura))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build();
+        return builder
+                .rootUri(url)
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build();
+    }
+}
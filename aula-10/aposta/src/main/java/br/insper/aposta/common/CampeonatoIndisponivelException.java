@@ -0,0 +1,11 @@
+package br.insper.aposta.common;
+
+public class CampeonatoIndisponivelException extends RuntimeException {
+    public CampeonatoIndisponivelException(String message) {
+        super(message);
+    }
+
+    public CampeonatoIndisponivelException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
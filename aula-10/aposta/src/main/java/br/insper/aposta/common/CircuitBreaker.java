@@ -0,0 +1,79 @@
+package br.insper.aposta.common;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// depois de falhasParaAbrir falhas seguidas o circuito abre e as chamadas
+// falham na hora, sem esperar o timeout de um servico que ja esta fora. Passado
+// o tempo aberto, uma unica chamada de teste passa (meio aberto): se der certo
+// o circuito fecha, se falhar abre de novo
+public class CircuitBreaker {
+
+    public enum Estado {
+        FECHADO, MEIO_ABERTO, ABERTO
+    }
+
+    private final int falhasParaAbrir;
+
+    private final long tempoAberto;
+
+    private final LongSupplier relogio;
+
+    private Estado estado = Estado.FECHADO;
+
+    private int falhas;
+
+    private long abertoDesde;
+
+    public CircuitBreaker(int falhasParaAbrir, long tempoAbertoMillis) {
+        this(falhasParaAbrir, tempoAbertoMillis, System::nanoTime);
+    }
+
+    CircuitBreaker(int falhasParaAbrir, long tempoAbertoMillis, LongSupplier relogio) {
+        this.falhasParaAbrir = falhasParaAbrir;
+        this.tempoAberto = TimeUnit.MILLISECONDS.toNanos(tempoAbertoMillis);
+        this.relogio = relogio;
+    }
+
+    // quem recebe true tem que chamar registrarSucesso ou registrarFalha depois
+    public synchronized boolean permitir() {
+        switch (estado) {
+            case FECHADO:
+                return true;
+            case ABERTO:
+                if (relogio.getAsLong() - abertoDesde < tempoAberto) {
+                    return false;
+                }
+                estado = Estado.MEIO_ABERTO;
+                return true;
+            default:
+                // a chamada de teste ainda nao voltou
+                return false;
+        }
+    }
+
+    public synchronized void registrarSucesso() {
+        estado = Estado.FECHADO;
+        falhas = 0;
+    }
+
+    public synchronized void registrarFalha() {
+        falhas++;
+        if (estado == Estado.MEIO_ABERTO || falhas >= falhasParaAbrir) {
+            estado = Estado.ABERTO;
+            abertoDesde = relogio.getAsLong();
+        }
+    }
+
+    // a chamada nao chegou a um resultado: nao conta como falha, mas a chamada de
+    // teste de um circuito meio aberto fica liberada para outra
+    public synchronized void registrarCancelamento() {
+        if (estado == Estado.MEIO_ABERTO) {
+            estado = Estado.ABERTO;
+        }
+    }
+
+    public synchronized Estado getEstado() {
+        return estado;
+    }
+}
@@ -0,0 +1,75 @@
+package br.insper.aposta.common;
+
+import br.insper.aposta.partida.PartidaEvento;
+import br.insper.aposta.partida.PartidaEventoDeserializer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.FailedDeserializationInfo;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@EnableKafka
+@Configuration
+public class KafkaConsumerConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaConsumerConfig.class);
+
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Value("${partidas.listener.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Bean
+    public ConsumerFactory<String, PartidaEvento> consumerFactory() {
+        Map<String, Object> config = new HashMap<>();
+
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, "aposta");
+        // na primeira vez o grupo le o topico desde o inicio; o que ja saiu do
+        // topico vem da carga inicial pelo campeonato
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+
+        return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(), getValueDeserializer());
+    }
+
+    // o comeco do topico ainda tem os eventos em json de antes do codec, e o
+    // grupo novo comeca por eles. Um registro que o codec nao le vira valor
+    // nulo, que o listener pula; sem isso a excecao sairia de dentro do poll e
+    // o consumidor nunca passaria daquele offset
+    static Deserializer<PartidaEvento> getValueDeserializer() {
+        ErrorHandlingDeserializer<PartidaEvento> deserializer =
+                new ErrorHandlingDeserializer<>(new PartidaEventoDeserializer());
+        deserializer.setFailedDeserializationFunction(KafkaConsumerConfig::descartar);
+        return deserializer;
+    }
+
+    private static PartidaEvento descartar(FailedDeserializationInfo info) {
+        log.warn("Registro ilegivel do topico {} ignorado: {}", info.getTopic(), info.getException().getMessage());
+        return null;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, PartidaEvento> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, PartidaEvento> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        // um poll inteiro por chamada; o commit so acontece depois da gravacao no mongo
+        factory.setBatchListener(true);
+        return factory;
+    }
+}
@@ -1,11 +1,14 @@
-package br.insper.loja.partida.dto;
+package br.insper.aposta.partida;
 
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
-public class RetornarPartidaDTO {
+public class AlteracaoPartidaDTO {
+    private Integer id;
+    private Long alteracao;
+    private Long versao;
     private String nomeMandante;
     private String nomeVisitante;
     private Integer placarMandante;
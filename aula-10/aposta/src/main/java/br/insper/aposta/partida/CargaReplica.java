@@ -0,0 +1,19 @@
+package br.insper.aposta.partida;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// marca d'agua da carga inicial da replica: a ultima alteracao do campeonato
+// ja copiada e se a copia chegou ao fim
+@Document("cargaReplica")
+@Getter
+@Setter
+public class CargaReplica {
+
+    @Id
+    private String id;
+    private Long desde;
+    private boolean concluida;
+}
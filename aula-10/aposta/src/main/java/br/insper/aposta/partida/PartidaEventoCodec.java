@@ -0,0 +1,278 @@
+package br.insper.aposta.partida;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Codificacao binaria do topico "partidas".
+ *
+ * <pre>
+ * byte    MAGICO (0x50)
+ * byte    VERSAO
+ * varint  mascara de presenca (um bit por campo, na ordem abaixo)
+ * varint  id, idMandante, idVisitante        (zigzag)
+ * string  nomeMandante, nomeVisitante        (varint do tamanho + UTF-8)
+ * varint  placarMandante, placarVisitante    (zigzag)
+ * varint  status                             (indice em STATUS, ou STATUS.length + string)
+ * varint  versao da partida                  (64 bits, sem zigzag)
+ * </pre>
+ *
+ * A versao 1 do formato tinha a mascara em um byte e nao tinha a versao da
+ * partida; ela continua sendo lida para consumir o que ja esta no topico.
+ *
+ * Campos nulos nao ocupam bytes. Os nomes dos times nao usam dicionario entre
+ * mensagens porque um consumidor pode comecar a ler de qualquer offset; os ids
+ * dos times vao junto para que os consumidores possam agregar por id.
+ *
+ * Copia do codec do partida-contrato (aula-12), como o CampeonatoClient: o
+ * aposta e um projeto separado e nao depende de um artefato instalado por
+ * outro. Uma mudanca no formato tem que ser feita nos dois.
+ */
+public final class PartidaEventoCodec {
+
+    public static final byte MAGICO = 0x50;
+    public static final byte VERSAO = 2;
+    private static final byte VERSAO_1 = 1;
+
+    private static final String[] STATUS = {"AGENDADA", "REALIZADA"};
+
+    private static final int ID = 1;
+    private static final int ID_MANDANTE = 1 << 1;
+    private static final int ID_VISITANTE = 1 << 2;
+    private static final int NOME_MANDANTE = 1 << 3;
+    private static final int NOME_VISITANTE = 1 << 4;
+    private static final int PLACAR_MANDANTE = 1 << 5;
+    private static final int PLACAR_VISITANTE = 1 << 6;
+    private static final int STATUS_PRESENTE = 1 << 7;
+    private static final int VERSAO_PARTIDA = 1 << 8;
+
+    private PartidaEventoCodec() {
+    }
+
+    public static byte[] encode(PartidaEvento evento) {
+        Escrita out = new Escrita();
+        out.escreverByte(MAGICO);
+        out.escreverByte(VERSAO);
+
+        int mascara = 0;
+        mascara |= evento.getId() != null ? ID : 0;
+        mascara |= evento.getIdMandante() != null ? ID_MANDANTE : 0;
+        mascara |= evento.getIdVisitante() != null ? ID_VISITANTE : 0;
+        mascara |= evento.getNomeMandante() != null ? NOME_MANDANTE : 0;
+        mascara |= evento.getNomeVisitante() != null ? NOME_VISITANTE : 0;
+        mascara |= evento.getPlacarMandante() != null ? PLACAR_MANDANTE : 0;
+        mascara |= evento.getPlacarVisitante() != null ? PLACAR_VISITANTE : 0;
+        mascara |= evento.getStatus() != null ? STATUS_PRESENTE : 0;
+        mascara |= evento.getVersao() != null ? VERSAO_PARTIDA : 0;
+        out.escreverVarint(mascara);
+
+        if (evento.getId() != null) {
+            out.escreverInt(evento.getId());
+        }
+        if (evento.getIdMandante() != null) {
+            out.escreverInt(evento.getIdMandante());
+        }
+        if (evento.getIdVisitante() != null) {
+            out.escreverInt(evento.getIdVisitante());
+        }
+        if (evento.getNomeMandante() != null) {
+            out.escreverString(evento.getNomeMandante());
+        }
+        if (evento.getNomeVisitante() != null) {
+            out.escreverString(evento.getNomeVisitante());
+        }
+        if (evento.getPlacarMandante() != null) {
+            out.escreverInt(evento.getPlacarMandante());
+        }
+        if (evento.getPlacarVisitante() != null) {
+            out.escreverInt(evento.getPlacarVisitante());
+        }
+        if (evento.getStatus() != null) {
+            int codigo = codigoStatus(evento.getStatus());
+            out.escreverVarint(codigo);
+            if (codigo == STATUS.length) {
+                out.escreverString(evento.getStatus());
+            }
+        }
+        if (evento.getVersao() != null) {
+            out.escreverVarlong(evento.getVersao());
+        }
+        return out.toByteArray();
+    }
+
+    public static PartidaEvento decode(byte[] dados) {
+        Leitura in = new Leitura(dados);
+        if (in.lerByte() != MAGICO) {
+            throw new IllegalArgumentException("Mensagem nao e um evento de partida");
+        }
+        int versao = in.lerByte();
+        int mascara;
+        if (versao == VERSAO) {
+            mascara = in.lerVarint();
+        } else if (versao == VERSAO_1) {
+            mascara = in.lerByte() & 0xFF;
+        } else {
+            throw new IllegalArgumentException("Versao " + versao + " do evento de partida nao suportada");
+        }
+
+        PartidaEvento evento = new PartidaEvento();
+        if ((mascara & ID) != 0) {
+            evento.setId(in.lerInt());
+        }
+        if ((mascara & ID_MANDANTE) != 0) {
+            evento.setIdMandante(in.lerInt());
+        }
+        if ((mascara & ID_VISITANTE) != 0) {
+            evento.setIdVisitante(in.lerInt());
+        }
+        if ((mascara & NOME_MANDANTE) != 0) {
+            evento.setNomeMandante(in.lerString());
+        }
+        if ((mascara & NOME_VISITANTE) != 0) {
+            evento.setNomeVisitante(in.lerString());
+        }
+        if ((mascara & PLACAR_MANDANTE) != 0) {
+            evento.setPlacarMandante(in.lerInt());
+        }
+        if ((mascara & PLACAR_VISITANTE) != 0) {
+            evento.setPlacarVisitante(in.lerInt());
+        }
+        if ((mascara & STATUS_PRESENTE) != 0) {
+            // um varint de 5 bytes pode chegar negativo; sem o teste o indice
+            // estouraria fora do IllegalArgumentException que o deserializer trata
+            int codigo = in.lerVarint();
+            if (codigo < 0 || codigo > STATUS.length) {
+                throw new IllegalArgumentException("Status " + codigo + " invalido");
+            } else if (codigo < STATUS.length) {
+                evento.setStatus(STATUS[codigo]);
+            } else {
+                evento.setStatus(in.lerString());
+            }
+        }
+        if ((mascara & VERSAO_PARTIDA) != 0) {
+            evento.setVersao(in.lerVarlong());
+        }
+        if (in.restante() != 0) {
+            throw new IllegalArgumentException("Evento de partida com " + in.restante() + " bytes a mais");
+        }
+        return evento;
+    }
+
+    private static int codigoStatus(String status) {
+        for (int i = 0; i < STATUS.length; i++) {
+            if (STATUS[i].equals(status)) {
+                return i;
+            }
+        }
+        return STATUS.length;
+    }
+
+    private static final class Escrita {
+        private byte[] buffer = new byte[48];
+        private int posicao;
+
+        void escreverByte(int valor) {
+            garantir(1);
+            buffer[posicao++] = (byte) valor;
+        }
+
+        void escreverInt(int valor) {
+            escreverVarint((valor << 1) ^ (valor >> 31));
+        }
+
+        void escreverVarint(int valor) {
+            garantir(5);
+            while ((valor & ~0x7F) != 0) {
+                buffer[posicao++] = (byte) ((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            buffer[posicao++] = (byte) valor;
+        }
+
+        void escreverVarlong(long valor) {
+            garantir(10);
+            while ((valor & ~0x7FL) != 0) {
+                buffer[posicao++] = (byte) ((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            buffer[posicao++] = (byte) valor;
+        }
+
+        void escreverString(String valor) {
+            byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+            escreverVarint(bytes.length);
+            garantir(bytes.length);
+            System.arraycopy(bytes, 0, buffer, posicao, bytes.length);
+            posicao += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, posicao);
+        }
+
+        private void garantir(int tamanho) {
+            if (posicao + tamanho > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, posicao + tamanho));
+            }
+        }
+    }
+
+    private static final class Leitura {
+        private final byte[] dados;
+        private int posicao;
+
+        Leitura(byte[] dados) {
+            this.dados = dados;
+        }
+
+        byte lerByte() {
+            if (posicao >= dados.length) {
+                throw new IllegalArgumentException("Evento de partida truncado");
+            }
+            return dados[posicao++];
+        }
+
+        int lerInt() {
+            int valor = lerVarint();
+            return (valor >>> 1) ^ -(valor & 1);
+        }
+
+        int lerVarint() {
+            int valor = 0;
+            for (int deslocamento = 0; deslocamento < 35; deslocamento += 7) {
+                byte b = lerByte();
+                valor |= (b & 0x7F) << deslocamento;
+                if ((b & 0x80) == 0) {
+                    return valor;
+                }
+            }
+            throw new IllegalArgumentException("Varint invalido no evento de partida");
+        }
+
+        long lerVarlong() {
+            long valor = 0;
+            for (int deslocamento = 0; deslocamento < 70; deslocamento += 7) {
+                byte b = lerByte();
+                valor |= (long) (b & 0x7F) << deslocamento;
+                if ((b & 0x80) == 0) {
+                    return valor;
+                }
+            }
+            throw new IllegalArgumentException("Varint invalido no evento de partida");
+        }
+
+        String lerString() {
+            int tamanho = lerVarint();
+            if (tamanho < 0 || tamanho > restante()) {
+                throw new IllegalArgumentException("Evento de partida truncado");
+            }
+            String valor = new String(dados, posicao, tamanho, StandardCharsets.UTF_8);
+            posicao += tamanho;
+            return valor;
+        }
+
+        int restante() {
+            return dados.length - posicao;
+        }
+    }
+}
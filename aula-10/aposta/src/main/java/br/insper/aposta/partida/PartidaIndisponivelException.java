@@ -0,0 +1,11 @@
+package br.insper.aposta.partida;
+
+public class PartidaIndisponivelException extends RuntimeException {
+    public PartidaIndisponivelException(String message) {
+        super(message);
+    }
+
+    public PartidaIndisponivelException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
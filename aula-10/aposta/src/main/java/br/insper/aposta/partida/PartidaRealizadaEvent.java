@@ -0,0 +1,5 @@
+package br.insper.aposta.partida;
+
+// publicado quando a replica recebe uma partida REALIZADA nova ou corrigida
+public record PartidaRealizadaEvent(Integer idPartida, RetornarPartidaDTO partida) {
+}
@@ -0,0 +1,62 @@
+package br.insper.aposta.partida;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// copia local do estado de uma partida do campeonato, so o que a aposta usa.
+// A versao vem do campeonato e cresce a cada edicao da partida
+@Document("partidas")
+@Getter
+@Setter
+public class PartidaReplica {
+
+    @Id
+    private Integer id;
+    private Long versao;
+    private String nomeMandante;
+    private String nomeVisitante;
+    private Integer placarMandante;
+    private Integer placarVisitante;
+    private String status;
+
+    public static PartidaReplica of(PartidaEvento evento) {
+        PartidaReplica partida = new PartidaReplica();
+        partida.setId(evento.getId());
+        partida.setVersao(evento.getVersao());
+        partida.setNomeMandante(evento.getNomeMandante());
+        partida.setNomeVisitante(evento.getNomeVisitante());
+        partida.setPlacarMandante(evento.getPlacarMandante());
+        partida.setPlacarVisitante(evento.getPlacarVisitante());
+        partida.setStatus(evento.getStatus());
+        return partida;
+    }
+
+    public static PartidaReplica of(AlteracaoPartidaDTO alteracao) {
+        PartidaReplica partida = new PartidaReplica();
+        partida.setId(alteracao.getId());
+        partida.setVersao(alteracao.getVersao());
+        partida.setNomeMandante(alteracao.getNomeMandante());
+        partida.setNomeVisitante(alteracao.getNomeVisitante());
+        partida.setPlacarMandante(alteracao.getPlacarMandante());
+        partida.setPlacarVisitante(alteracao.getPlacarVisitante());
+        partida.setStatus(alteracao.getStatus());
+        return partida;
+    }
+
+    // evento sem versao (produtor antigo) perde para qualquer versao conhecida
+    public boolean isMaisNova(PartidaReplica outra) {
+        return outra == null || versao != null && (outra.getVersao() == null || versao > outra.getVersao());
+    }
+
+    public RetornarPartidaDTO toRetornarPartidaDTO() {
+        RetornarPartidaDTO partida = new RetornarPartidaDTO();
+        partida.setNomeMandante(nomeMandante);
+        partida.setNomeVisitante(nomeVisitante);
+        partida.setPlacarMandante(placarMandante);
+        partida.setPlacarVisitante(placarVisitante);
+        partida.setStatus(status);
+        return partida;
+    }
+}
@@ -0,0 +1,150 @@
+package br.insper.aposta.partida;
+
+import br.insper.aposta.common.CampeonatoClient;
+import br.insper.aposta.common.CampeonatoIndisponivelException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+// replica local das partidas: status e placar de cada partida num mapa em
+// memoria, gravado na colecao partidas do mongo. O topico partidas mantem a
+// replica em dia; uma carga inicial copia uma vez todas as partidas do
+// campeonato, para cobrir o que ja saiu do topico. O andamento da carga fica
+// num documento proprio (CargaReplica), entao ela nao depende da colecao estar
+// vazia e uma carga interrompida continua de onde parou na proxima subida.
+//
+// Os dois caminhos entregam a mesma partida em ordens quaisquer, entao so
+// entra a versao mais nova de cada partida. Cada partida REALIZADA que entra
+// vira um PartidaRealizadaEvent, que liquida as apostas dela
+@Service
+public class PartidaReplicaService {
+
+    private static final Logger log = LoggerFactory.getLogger(PartidaReplicaService.class);
+
+    private static final int LIMITE = 1000;
+
+    static final String CARGA = "partidas";
+
+    @Autowired
+    private PartidaReplicaRepository partidaReplicaRepository;
+
+    @Autowired
+    private CargaReplicaRepository cargaReplicaRepository;
+
+    @Autowired
+    private CampeonatoClient campeonatoClient;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<Integer, PartidaReplica> partidas = new ConcurrentHashMap<>();
+
+    public PartidaReplica getPartida(Integer idPartida) {
+        return idPartida == null ? null : partidas.get(idPartida);
+    }
+
+    // se o campeonato estiver fora, a replica segue so com o topico, as
+    // partidas que faltarem sao buscadas por http e a carga continua na
+    // proxima subida
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        partidaReplicaRepository.findAll().forEach(salva -> partidas.merge(salva.getId(), salva,
+                (atual, nova) -> nova.isMaisNova(atual) ? nova : atual));
+
+        CargaReplica carga = cargaReplicaRepository.findById(CARGA).orElseGet(() -> {
+            CargaReplica nova = new CargaReplica();
+            nova.setId(CARGA);
+            nova.setDesde(0L);
+            return nova;
+        });
+        if (carga.isConcluida()) {
+            return;
+        }
+        try {
+            int copiadas = copiarDoCampeonato(carga);
+            log.info("Replica de partidas carregada do campeonato: {} partidas", copiadas);
+        } catch (CampeonatoIndisponivelException e) {
+            log.warn("Campeonato indisponivel, carga da replica continua a partir da alteracao {} na proxima subida",
+                    carga.getDesde(), e);
+        }
+    }
+
+    // pagina o feed de alteracoes do campeonato a partir da marca d'agua; a
+    // marca so avanca depois que a pagina foi aplicada
+    int copiarDoCampeonato(CargaReplica carga) {
+        int copiadas = 0;
+        while (true) {
+            AlteracaoPartidaDTO[] pagina = campeonatoClient.get(
+                    "/partida/alteracoes?desde={desde}&limit={limit}",
+                    AlteracaoPartidaDTO[].class, carga.getDesde(), LIMITE).getBody();
+            if (pagina != null && pagina.length > 0) {
+                aplicar(Arrays.stream(pagina).map(PartidaReplica::of).toList());
+                copiadas += pagina.length;
+                carga.setDesde(pagina[pagina.length - 1].getAlteracao());
+            }
+            if (pagina == null || pagina.length < LIMITE) {
+                carga.setConcluida(true);
+            }
+            cargaReplicaRepository.save(carga);
+            if (carga.isConcluida()) {
+                return copiadas;
+            }
+        }
+    }
+
+    // um lote por poll; o offset so e confirmado depois da liquidacao e da
+    // gravacao no mongo. Os records vem inteiros porque um valor nulo (registro
+    // que o deserializer descartou) chegaria como KafkaNull numa lista de eventos
+    @KafkaListener(topics = "partidas")
+    public void receber(List<ConsumerRecord<String, PartidaEvento>> records) {
+        aplicar(records.stream()
+                .map(ConsumerRecord::value)
+                .filter(Objects::nonNull)
+                .filter(evento -> evento.getId() != null)
+                .map(PartidaReplica::of)
+                .toList());
+    }
+
+    // liquida primeiro, depois grava no mongo e por ultimo publica no mapa. A
+    // versao so fica registrada depois que as apostas foram liquidadas: se a
+    // liquidacao ou a gravacao falharem, o lote volta do topico, a partida
+    // ainda conta como nova e e liquidada de novo (os updates sao idempotentes)
+    synchronized List<PartidaReplica> aplicar(Collection<PartidaReplica> novas) {
+        Map<Integer, PartidaReplica> alteradas = new LinkedHashMap<>();
+        for (PartidaReplica nova : novas) {
+            PartidaReplica atual = alteradas.containsKey(nova.getId())
+                    ? alteradas.get(nova.getId())
+                    : partidas.get(nova.getId());
+            if (nova.isMaisNova(atual)) {
+                alteradas.put(nova.getId(), nova);
+            }
+        }
+        if (alteradas.isEmpty()) {
+            return List.of();
+        }
+        // os listeners de PartidaRealizadaEvent rodam nesta thread
+        for (PartidaReplica partida : alteradas.values()) {
+            if ("REALIZADA".equals(partida.getStatus())) {
+                eventPublisher.publishEvent(new PartidaRealizadaEvent(partida.getId(), partida.toRetornarPartidaDTO()));
+            }
+        }
+        partidaReplicaRepository.saveAll(alteradas.values());
+        partidas.putAll(alteradas);
+        return new ArrayList<>(alteradas.values());
+    }
+}
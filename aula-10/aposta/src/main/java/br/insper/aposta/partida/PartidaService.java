@@ -1,17 +1,138 @@
 package br.insper.aposta.partida;
 
+import br.insper.aposta.common.CampeonatoClient;
+import br.insper.aposta.common.CampeonatoIndisponivelException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class PartidaService {
 
+    @Autowired
+    private CampeonatoClient campeonatoClient;
+
+    @Autowired
+    private PartidaReplicaService partidaReplicaService;
+
+    @Value("${campeonato.timeout-lote:5000}")
+    private long timeoutLote;
+
+    // responde pela replica local; so uma partida que a replica ainda nao tem
+    // vai ao campeonato. O limite de chamadas simultaneas ao campeonato fica no
+    // CampeonatoClient; com virtual threads ele nao vem mais do tamanho do pool
+    // do tomcat
     public ResponseEntity<RetornarPartidaDTO> getPartida(Integer idPartida) {
-        RestTemplate restTemplate = new RestTemplate();
-        return restTemplate.getForEntity(
-                "http://campeonato:8080/partida/" + idPartida,
-                RetornarPartidaDTO.class);
+        PartidaReplica replica = partidaReplicaService.getPartida(idPartida);
+        if (replica != null) {
+            return ResponseEntity.ok(replica.toRetornarPartidaDTO());
+        }
+        return buscarNoCampeonato(idPartida);
+    }
+
+    // as partidas que a replica nao tem sao buscadas em paralelo, uma virtual
+    // thread por partida. As partidas que o campeonato nao conhece ficam fora do
+    // mapa; qualquer outra falha, ou o fim do prazo do lote, cancela as buscas
+    // que ainda estao em andamento
+    public Map<Integer, RetornarPartidaDTO> getPartidas(Collection<Integer> idsPartida) {
+        Set<Integer> ids = new LinkedHashSet<>(idsPartida);
+        ids.remove(null);
+
+        Map<Integer, RetornarPartidaDTO> partidas = new HashMap<>();
+        ids.removeIf(id -> {
+            PartidaReplica replica = partidaReplicaService.getPartida(id);
+            if (replica != null) {
+                partidas.put(id, replica.toRetornarPartidaDTO());
+            }
+            return replica != null;
+        });
+        if (ids.isEmpty()) {
+            return partidas;
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            ExecutorCompletionService<PartidaBuscada> busca =
+                    new ExecutorCompletionService<>(executor);
+
+            long prazo = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutLote);
+            List<Future<PartidaBuscada>> futures = ids.stream()
+                    .map(id -> busca.submit(() -> buscarPartida(id, prazo)))
+                    .toList();
+
+            try {
+                for (int i = 0; i < futures.size(); i++) {
+                    Future<PartidaBuscada> future =
+                            busca.poll(prazo - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (future == null) {
+                        throw new PartidaIndisponivelException("Tempo esgotado ao consultar as partidas");
+                    }
+                    PartidaBuscada buscada = future.get();
+                    if (buscada.partida() != null) {
+                        partidas.put(buscada.id(), buscada.partida());
+                    }
+                }
+            } catch (ExecutionException e) {
+                cancelar(futures);
+                if (e.getCause() instanceof RuntimeException causa) {
+                    throw causa;
+                }
+                throw new PartidaIndisponivelException("Erro ao consultar as partidas", e.getCause());
+            } catch (InterruptedException e) {
+                cancelar(futures);
+                Thread.currentThread().interrupt();
+                throw new PartidaIndisponivelException("Consulta das partidas interrompida", e);
+            } catch (RuntimeException e) {
+                cancelar(futures);
+                throw e;
+            }
+        }
+        return partidas;
+    }
+
+    // as buscas alem do limite de chamadas de lote esperam a vez no
+    // CampeonatoClient ate o fim do prazo do lote; as outras vagas do bulkhead
+    // ficam para as chamadas avulsas
+    private PartidaBuscada buscarPartida(Integer idPartida, long prazo) {
+        long espera = Math.max(0, TimeUnit.NANOSECONDS.toMillis(prazo - System.nanoTime()));
+        try {
+            RetornarPartidaDTO partida = campeonatoClient.getLote(
+                    espera, "/partida/{id}", RetornarPartidaDTO.class, idPartida).getBody();
+            return new PartidaBuscada(idPartida, partida);
+        } catch (HttpClientErrorException.NotFound e) {
+            return new PartidaBuscada(idPartida, null);
+        } catch (CampeonatoIndisponivelException e) {
+            throw new PartidaIndisponivelException(e.getMessage(), e);
+        }
+    }
+
+    private ResponseEntity<RetornarPartidaDTO> buscarNoCampeonato(Integer idPartida) {
+        try {
+            return campeonatoClient.get("/partida/{id}", RetornarPartidaDTO.class, idPartida);
+        } catch (CampeonatoIndisponivelException e) {
+            throw new PartidaIndisponivelException(e.getMessage(), e);
+        }
+    }
+
+    private void cancelar(List<? extends Future<?>> futures) {
+        futures.forEach(future -> future.cancel(true));
+    }
+
+    private record PartidaBuscada(Integer id, RetornarPartidaDTO partida) {
     }
 
 }
@@ -0,0 +1,49 @@
+package br.insper.aposta.aposta;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ApostaRepositoryImplTests {
+
+    @Test
+    public void testGetCriteriaSoFiltraOsCamposInformados() {
+        LocalDateTime de = LocalDateTime.of(2024, 9, 1, 0, 0);
+        LocalDateTime ate = LocalDateTime.of(2024, 10, 1, 0, 0);
+
+        Document todos = ApostaRepositoryImpl.getCriteria(
+                new FiltroAposta(7, "REALIZADA", "EMPATE", de, ate)).getCriteriaObject();
+        Document semFiltro = ApostaRepositoryImpl.getCriteria(
+                new FiltroAposta(null, null, null, null, null)).getCriteriaObject();
+        Document soInicio = ApostaRepositoryImpl.getCriteria(
+                new FiltroAposta(null, null, null, de, null)).getCriteriaObject();
+
+        Assertions.assertEquals(7, todos.get("idPartida"));
+        Assertions.assertEquals("REALIZADA", todos.get("status"));
+        Assertions.assertEquals("EMPATE", todos.get("resultado"));
+        Assertions.assertEquals(new Document("$gte", de).append("$lt", ate), todos.get("dataAposta"));
+        Assertions.assertTrue(semFiltro.isEmpty());
+        Assertions.assertEquals(new Document("$gte", de), soInicio.get("dataAposta"));
+    }
+
+    @Test
+    public void testGetDepoisDeSegueAOrdemDeDataEId() {
+        Aposta ultima = new Aposta();
+        ultima.setId("b");
+        ultima.setDataAposta(LocalDateTime.of(2024, 9, 1, 12, 0));
+
+        List<Document> depoisDe = getDocuments(ApostaRepositoryImpl.getDepoisDe(ultima));
+
+        Assertions.assertEquals(List.of(
+                new Document("dataAposta", ultima.getDataAposta()).append("id", new Document("$gt", "b")),
+                new Document("dataAposta", new Document("$gt", ultima.getDataAposta()))), depoisDe);
+    }
+
+    private static List<Document> getDocuments(Criteria[] criterias) {
+        return List.of(criterias).stream().map(Criteria::getCriteriaObject).toList();
+    }
+}
@@ -1,13 +1,19 @@
 package br.insper.aposta.aposta;
 
+import br.insper.aposta.partida.PartidaRealizadaEvent;
+import br.insper.aposta.partida.PartidaService;
+import br.insper.aposta.partida.RetornarPartidaDTO;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @ExtendWith(MockitoExtension.class)
@@ -19,6 +25,9 @@ public class ApostaServiceTests {
     @Mock
     ApostaRepository apostaRepository;
 
+    @Mock
+    PartidaService partidaService;
+
     @Test
     public void testGetApostaWhenApostaIsNull() {
 
@@ -43,5 +52,79 @@ public class ApostaServiceTests {
 
     }
 
+    @Test
+    public void testConferirApostasSoConfereAsPartidasRealizadas() {
+        Aposta vitoria = getAposta(1, "VITORIA_MANDANTE");
+        Aposta empate = getAposta(1, "EMPATE");
+        Aposta agendada = getAposta(2, "EMPATE");
+
+        RetornarPartidaDTO realizada = new RetornarPartidaDTO();
+        realizada.setPlacarMandante(2);
+        realizada.setPlacarVisitante(1);
+        realizada.setStatus("REALIZADA");
+
+        RetornarPartidaDTO naoRealizada = new RetornarPartidaDTO();
+        naoRealizada.setStatus("AGENDADA");
+
+        Mockito.when(apostaRepository.findByStatus("REALIZADA"))
+                .thenReturn(List.of(vitoria, empate, agendada));
+        Mockito.when(partidaService.getPartidas(List.of(1, 1, 2)))
+                .thenReturn(Map.of(1, realizada, 2, naoRealizada));
+        Mockito.when(apostaRepository.saveAll(Mockito.anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Aposta> conferidas = apostaService.conferirApostas();
+
+        Assertions.assertEquals(2, conferidas.size());
+        Assertions.assertEquals("GANHOU", vitoria.getStatus());
+        Assertions.assertEquals("PERDEU", empate.getStatus());
+        Assertions.assertEquals("REALIZADA", agendada.getStatus());
+    }
+
+    @Test
+    public void testLiquidarMarcaGanhadorasAntesDasPerdedoras() {
+        RetornarPartidaDTO partida = new RetornarPartidaDTO();
+        partida.setPlacarMandante(0);
+        partida.setPlacarVisitante(3);
+        partida.setStatus("REALIZADA");
+
+        apostaService.liquidar(new PartidaRealizadaEvent(7, partida));
+
+        InOrder ordem = Mockito.inOrder(apostaRepository);
+        ordem.verify(apostaRepository).marcarGanhadoras(7, "VITORIA_VISITANTE");
+        ordem.verify(apostaRepository).marcarPerdedoras(7);
+        Mockito.verifyNoInteractions(partidaService);
+    }
+
+    @Test
+    public void testListarDevolveCursorSoQuandoAPaginaEstaCheia() {
+        FiltroAposta filtro = new FiltroAposta(1, "REALIZADA", null, null, null);
+        Aposta primeira = getAposta(1, "EMPATE");
+        primeira.setId("a");
+        Aposta segunda = getAposta(1, "EMPATE");
+        segunda.setId("b");
+
+        Mockito.when(apostaRepository.listar(filtro, null, 2)).thenReturn(List.of(primeira, segunda));
+        Mockito.when(apostaRepository.listar(filtro, "b", 2)).thenReturn(List.of());
+        // limite fora da faixa vira o maximo
+        Mockito.when(apostaRepository.listar(filtro, null, 1000)).thenReturn(List.of(primeira));
+
+        Assertions.assertEquals("b", apostaService.listar(filtro, null, 2).proximo());
+        Assertions.assertNull(apostaService.listar(filtro, "b", 2).proximo());
+        Assertions.assertNull(apostaService.listar(filtro, null, 5000).proximo());
+
+        // limite zero ou negativo vira uma aposta por pagina
+        Mockito.when(apostaRepository.listar(filtro, null, 1)).thenReturn(List.of(primeira));
+        Assertions.assertEquals("a", apostaService.listar(filtro, null, 0).proximo());
+        Assertions.assertEquals("a", apostaService.listar(filtro, null, -5).proximo());
+    }
+
+    private static Aposta getAposta(Integer idPartida, String resultado) {
+        Aposta aposta = new Aposta();
+        aposta.setIdPartida(idPartida);
+        aposta.setResultado(resultado);
+        aposta.setStatus("REALIZADA");
+        return aposta;
+    }
 
 }
@@ -0,0 +1,168 @@
+package br.insper.aposta.partida;
+
+import br.insper.aposta.aposta.ApostaRepository;
+import br.insper.aposta.aposta.ApostaService;
+import br.insper.aposta.common.CampeonatoClient;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+public class PartidaReplicaServiceTests {
+
+    @InjectMocks
+    PartidaReplicaService partidaReplicaService;
+
+    @Mock
+    PartidaReplicaRepository partidaReplicaRepository;
+
+    @Mock
+    CargaReplicaRepository cargaReplicaRepository;
+
+    @Mock
+    CampeonatoClient campeonatoClient;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Test
+    public void testReceberFicaComAVersaoMaisNova() {
+        partidaReplicaService.receber(getRecords(getEvento(1, 2L, "REALIZADA"), getEvento(1, 1L, "AGENDADA")));
+        // entrega repetida e atrasada do topico
+        partidaReplicaService.receber(getRecords(getEvento(1, 1L, "AGENDADA")));
+
+        Assertions.assertEquals(2L, partidaReplicaService.getPartida(1).getVersao());
+        Assertions.assertEquals("REALIZADA", partidaReplicaService.getPartida(1).getStatus());
+        Mockito.verify(partidaReplicaRepository, Mockito.times(1)).saveAll(Mockito.anyCollection());
+    }
+
+    @Test
+    public void testReceberPulaRegistroQueODeserializerDescartou() {
+        partidaReplicaService.receber(getRecords(null, getEvento(1, 1L, "REALIZADA")));
+
+        Assertions.assertEquals(1L, partidaReplicaService.getPartida(1).getVersao());
+    }
+
+    @Test
+    public void testReceberPublicaSoAsPartidasRealizadasQueMudaram() {
+        partidaReplicaService.receber(getRecords(getEvento(1, 1L, "REALIZADA"), getEvento(2, 1L, "AGENDADA")));
+        partidaReplicaService.receber(getRecords(getEvento(1, 1L, "REALIZADA")));
+
+        ArgumentCaptor<PartidaRealizadaEvent> evento = ArgumentCaptor.forClass(PartidaRealizadaEvent.class);
+        Mockito.verify(eventPublisher, Mockito.times(1)).publishEvent(evento.capture());
+        Assertions.assertEquals(1, evento.getValue().idPartida());
+        Assertions.assertTrue(evento.getValue().partida().isVitoriaMandante());
+    }
+
+    @Test
+    public void testLoteReentregueDepoisDeFalhaNaLiquidacaoLiquidaDeNovo() {
+        ApostaRepository apostaRepository = Mockito.mock(ApostaRepository.class);
+        ApostaService apostaService = new ApostaService();
+        ReflectionTestUtils.setField(apostaService, "apostaRepository", apostaRepository);
+        Mockito.doAnswer(invocation -> {
+            apostaService.liquidar(invocation.getArgument(0));
+            return null;
+        }).when(eventPublisher).publishEvent(Mockito.any(Object.class));
+        Mockito.when(apostaRepository.marcarPerdedoras(1))
+                .thenThrow(new IllegalStateException("mongo fora"))
+                .thenReturn(3L);
+
+        List<ConsumerRecord<String, PartidaEvento>> lote = getRecords(getEvento(1, 1L, "REALIZADA"));
+        Assertions.assertThrows(IllegalStateException.class, () -> partidaReplicaService.receber(lote));
+        // nada registrado: a versao continua nova para a reentrega
+        Assertions.assertNull(partidaReplicaService.getPartida(1));
+        Mockito.verify(partidaReplicaRepository, Mockito.never()).saveAll(Mockito.anyCollection());
+
+        partidaReplicaService.receber(lote);
+
+        Mockito.verify(apostaRepository, Mockito.times(2)).marcarGanhadoras(1, "VITORIA_MANDANTE");
+        Mockito.verify(apostaRepository, Mockito.times(2)).marcarPerdedoras(1);
+        Assertions.assertEquals(1L, partidaReplicaService.getPartida(1).getVersao());
+    }
+
+    @Test
+    public void testCarregarCopiaDoCampeonatoMesmoComOTopicoChegandoAntes() {
+        Mockito.when(partidaReplicaRepository.findAll()).thenReturn(List.of());
+        Mockito.when(cargaReplicaRepository.findById(PartidaReplicaService.CARGA)).thenReturn(Optional.empty());
+        Mockito.when(campeonatoClient.get("/partida/alteracoes?desde={desde}&limit={limit}",
+                        AlteracaoPartidaDTO[].class, 0L, 1000))
+                .thenReturn(ResponseEntity.ok(new AlteracaoPartidaDTO[]{
+                        getAlteracao(1, 3L, 0L), getAlteracao(2, 4L, 1L)}));
+        // o topico ja entregou uma versao mais nova da partida 2
+        partidaReplicaService.receber(getRecords(getEvento(2, 2L, "REALIZADA")));
+
+        partidaReplicaService.carregar();
+
+        Assertions.assertEquals(0L, partidaReplicaService.getPartida(1).getVersao());
+        Assertions.assertEquals(2L, partidaReplicaService.getPartida(2).getVersao());
+        Assertions.assertNull(partidaReplicaService.getPartida(3));
+
+        ArgumentCaptor<CargaReplica> carga = ArgumentCaptor.forClass(CargaReplica.class);
+        Mockito.verify(cargaReplicaRepository).save(carga.capture());
+        Assertions.assertTrue(carga.getValue().isConcluida());
+        Assertions.assertEquals(4L, carga.getValue().getDesde());
+    }
+
+    @Test
+    public void testCarregarContinuaCargaInterrompidaDaMarcaDagua() {
+        CargaReplica interrompida = new CargaReplica();
+        interrompida.setId(PartidaReplicaService.CARGA);
+        interrompida.setDesde(1000L);
+        Mockito.when(partidaReplicaRepository.findAll()).thenReturn(List.of());
+        Mockito.when(cargaReplicaRepository.findById(PartidaReplicaService.CARGA))
+                .thenReturn(Optional.of(interrompida));
+        Mockito.when(campeonatoClient.get("/partida/alteracoes?desde={desde}&limit={limit}",
+                        AlteracaoPartidaDTO[].class, 1000L, 1000))
+                .thenReturn(ResponseEntity.ok(new AlteracaoPartidaDTO[]{getAlteracao(7, 1001L, 0L)}));
+
+        partidaReplicaService.carregar();
+
+        Assertions.assertNotNull(partidaReplicaService.getPartida(7));
+        Assertions.assertTrue(interrompida.isConcluida());
+
+        // carga concluida nao vai mais ao campeonato
+        partidaReplicaService.carregar();
+        Mockito.verify(campeonatoClient, Mockito.times(1))
+                .get(Mockito.anyString(), Mockito.eq(AlteracaoPartidaDTO[].class), Mockito.any(Object[].class));
+    }
+
+    private static List<ConsumerRecord<String, PartidaEvento>> getRecords(PartidaEvento... eventos) {
+        List<ConsumerRecord<String, PartidaEvento>> records = new ArrayList<>();
+        for (int i = 0; i < eventos.length; i++) {
+            records.add(new ConsumerRecord<>("partidas", 0, i, null, eventos[i]));
+        }
+        return records;
+    }
+
+    private static PartidaEvento getEvento(Integer id, Long versao, String status) {
+        PartidaEvento evento = new PartidaEvento();
+        evento.setId(id);
+        evento.setVersao(versao);
+        evento.setPlacarMandante(1);
+        evento.setPlacarVisitante(0);
+        evento.setStatus(status);
+        return evento;
+    }
+
+    private static AlteracaoPartidaDTO getAlteracao(Integer id, Long alteracao, Long versao) {
+        AlteracaoPartidaDTO partida = new AlteracaoPartidaDTO();
+        partida.setId(id);
+        partida.setAlteracao(alteracao);
+        partida.setVersao(versao);
+        partida.setStatus("AGENDADA");
+        return partida;
+    }
+}
@@ -0,0 +1,145 @@
+package br.insper.aposta.partida;
+
+import br.insper.aposta.common.CampeonatoClient;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ExtendWith(MockitoExtension.class)
+public class PartidaServiceTests {
+
+    PartidaService partidaService;
+
+    @Mock
+    CampeonatoClient campeonatoClient;
+
+    @Mock
+    PartidaReplicaService partidaReplicaService;
+
+    @BeforeEach
+    public void setUp() {
+        partidaService = new PartidaService();
+        ReflectionTestUtils.setField(partidaService, "campeonatoClient", campeonatoClient);
+        ReflectionTestUtils.setField(partidaService, "partidaReplicaService", partidaReplicaService);
+        ReflectionTestUtils.setField(partidaService, "timeoutLote", 2000L);
+    }
+
+    @Test
+    public void testGetPartidaRespondePelaReplica() {
+        PartidaReplica replica = new PartidaReplica();
+        replica.setId(1);
+        replica.setVersao(2L);
+        replica.setPlacarMandante(2);
+        replica.setPlacarVisitante(1);
+        replica.setStatus("REALIZADA");
+        Mockito.when(partidaReplicaService.getPartida(1)).thenReturn(replica);
+
+        ResponseEntity<RetornarPartidaDTO> partida = partidaService.getPartida(1);
+
+        Assertions.assertEquals("REALIZADA", partida.getBody().getStatus());
+        Assertions.assertTrue(partida.getBody().isVitoriaMandante());
+        Mockito.verifyNoInteractions(campeonatoClient);
+    }
+
+    @Test
+    public void testGetPartidasSoBuscaNoCampeonatoQuemNaoEstaNaReplica() {
+        PartidaReplica replica = new PartidaReplica();
+        replica.setId(1);
+        replica.setVersao(0L);
+        replica.setStatus("AGENDADA");
+        Mockito.when(partidaReplicaService.getPartida(1)).thenReturn(replica);
+        Mockito.when(campeonatoClient.getLote(Mockito.anyLong(), Mockito.eq("/partida/{id}"),
+                        Mockito.eq(RetornarPartidaDTO.class), Mockito.eq(2)))
+                .thenReturn(ResponseEntity.ok(getPartida("REALIZADA")));
+
+        Map<Integer, RetornarPartidaDTO> partidas = partidaService.getPartidas(List.of(1, 2));
+
+        Assertions.assertEquals("AGENDADA", partidas.get(1).getStatus());
+        Assertions.assertEquals("REALIZADA", partidas.get(2).getStatus());
+        Mockito.verify(campeonatoClient, Mockito.never()).getLote(Mockito.anyLong(), Mockito.eq("/partida/{id}"),
+                Mockito.eq(RetornarPartidaDTO.class), Mockito.eq(1));
+    }
+
+    @Test
+    public void testGetPartidasBuscaEmParalelo() {
+        // cada chamada so responde depois que as tres estiverem em andamento
+        CountDownLatch emAndamento = new CountDownLatch(3);
+        Mockito.when(campeonatoClient.getLote(Mockito.anyLong(), Mockito.eq("/partida/{id}"),
+                        Mockito.eq(RetornarPartidaDTO.class), Mockito.any()))
+                .thenAnswer(invocation -> {
+                    emAndamento.countDown();
+                    if (!emAndamento.await(1, TimeUnit.SECONDS)) {
+                        throw new IllegalStateException("buscas sequenciais");
+                    }
+                    return ResponseEntity.ok(getPartida("REALIZADA"));
+                });
+
+        Map<Integer, RetornarPartidaDTO> partidas = partidaService.getPartidas(List.of(1, 2, 3, 2));
+
+        Assertions.assertEquals(3, partidas.size());
+        Mockito.verify(campeonatoClient, Mockito.times(3))
+                .getLote(Mockito.anyLong(), Mockito.eq("/partida/{id}"),
+                        Mockito.eq(RetornarPartidaDTO.class), Mockito.any());
+    }
+
+    @Test
+    public void testGetPartidasIgnoraPartidaNaoEncontrada() {
+        Mockito.when(campeonatoClient.getLote(Mockito.anyLong(), Mockito.eq("/partida/{id}"),
+                        Mockito.eq(RetornarPartidaDTO.class), Mockito.eq(1)))
+                .thenReturn(ResponseEntity.ok(getPartida("REALIZADA")));
+        Mockito.when(campeonatoClient.getLote(Mockito.anyLong(), Mockito.eq("/partida/{id}"),
+                        Mockito.eq(RetornarPartidaDTO.class), Mockito.eq(2)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+
+        Map<Integer, RetornarPartidaDTO> partidas = partidaService.getPartidas(List.of(1, 2));
+
+        Assertions.assertEquals(1, partidas.size());
+        Assertions.assertTrue(partidas.containsKey(1));
+    }
+
+    @Test
+    public void testGetPartidasCancelaBuscasNoTimeout() {
+        ReflectionTestUtils.setField(partidaService, "timeoutLote", 100L);
+        AtomicInteger interrompidas = new AtomicInteger();
+        Mockito.when(campeonatoClient.getLote(Mockito.anyLong(), Mockito.eq("/partida/{id}"),
+                        Mockito.eq(RetornarPartidaDTO.class), Mockito.any()))
+                .thenAnswer(invocation -> {
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        interrompidas.incrementAndGet();
+                        throw e;
+                    }
+                    return ResponseEntity.ok(getPartida("REALIZADA"));
+                });
+
+        long inicio = System.nanoTime();
+        Assertions.assertThrows(PartidaIndisponivelException.class,
+                () -> partidaService.getPartidas(List.of(1, 2)));
+
+        Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) < 5000);
+        Assertions.assertEquals(2, interrompidas.get());
+    }
+
+    private static RetornarPartidaDTO getPartida(String status) {
+        RetornarPartidaDTO partida = new RetornarPartidaDTO();
+        partida.setPlacarMandante(1);
+        partida.setPlacarVisitante(0);
+        partida.setStatus(status);
+        return partida;
+    }
+}
@@ -5,7 +5,9 @@ import lombok.Setter;
 
 @Getter
 @Setter
-public class RetornarPartidaDTO {
+public class AlteracaoPartidaDTO {
+    private Integer id;
+    private Long alteracao;
     private String nomeMandante;
     private String nomeVisitante;
     private Integer placarMandante;
@@ -1,8 +1,8 @@
 package br.insper.tabela.partida;
 
-import org.springframework.http.ResponseEntity;
+import br.insper.tabela.common.CampeonatoClient;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -11,12 +11,28 @@ import java.util.List;
 @Service
 public class PartidaService {
 
-    public List<RetornarPartidaDTO> getPartidas() {
-        RestTemplate restTemplate = new RestTemplate();
-        RetornarPartidaDTO[] lista = restTemplate.getForEntity(
-                "http://localhost:8080/partida",
-                RetornarPartidaDTO[].class).getBody();
-        return Arrays.asList(lista);
+    private static final int LIMITE = 1000;
+
+    @Autowired
+    private CampeonatoClient campeonatoClient;
+
+    // so as partidas salvas depois da alteracao desde, em ordem; pagina ate
+    // acabar, usando a ultima alteracao recebida como proximo desde
+    public List<AlteracaoPartidaDTO> getAlteracoes(long desde) {
+        List<AlteracaoPartidaDTO> alteracoes = new ArrayList<>();
+        while (true) {
+            AlteracaoPartidaDTO[] pagina = campeonatoClient.get(
+                    "/partida/alteracoes?desde={desde}&limit={limit}",
+                    AlteracaoPartidaDTO[].class, desde, LIMITE).getBody();
+            if (pagina == null || pagina.length == 0) {
+                return alteracoes;
+            }
+            alteracoes.addAll(Arrays.asList(pagina));
+            if (pagina.length < LIMITE) {
+                return alteracoes;
+            }
+            desde = pagina[pagina.length - 1].getAlteracao();
+        }
     }
 
 }
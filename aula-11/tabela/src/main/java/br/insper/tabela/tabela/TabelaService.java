@@ -1,47 +1,66 @@
 package br.insper.tabela.tabela;
 
+import br.insper.tabela.partida.AlteracaoPartidaDTO;
 import br.insper.tabela.partida.PartidaService;
-import br.insper.tabela.partida.RetornarPartidaDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
+// a tabela fica agregada em memoria junto com o ultimo estado de cada partida.
+// Cada GET pede ao campeonato so o que mudou depois da maior alteracao ja
+// vista (a marca d'agua): uma partida que mudou tem o resultado antigo
+// retirado e o novo somado, o resto da tabela nao e recalculado
 @Service
 public class TabelaService {
 
     @Autowired
     private PartidaService partidaService;
 
-    public List<TabelaDTO> getTabela() {
+    private final Map<Integer, AlteracaoPartidaDTO> partidas = new HashMap<>();
 
-        List<RetornarPartidaDTO> partidas = partidaService.getPartidas();
+    private final Map<String, TabelaDTO> tabela = new HashMap<>();
 
-        Map<String, TabelaDTO> tabela = new HashMap<>();
+    private long marcaDagua;
 
-        for (RetornarPartidaDTO partida : partidas) {
-            if (partida.getStatus().equals("REALIZADA")) {
-                processarTime(tabela, partida.getNomeMandante(), partida.getPlacarMandante(), partida.getPlacarVisitante());
-                processarTime(tabela, partida.getNomeVisitante(), partida.getPlacarVisitante(), partida.getPlacarMandante());
+    public synchronized List<TabelaDTO> getTabela() {
+
+        for (AlteracaoPartidaDTO partida : partidaService.getAlteracoes(marcaDagua)) {
+            AlteracaoPartidaDTO anterior = partidas.put(partida.getId(), partida);
+            if (anterior != null) {
+                processarPartida(anterior, -1);
             }
+            processarPartida(partida, 1);
+            marcaDagua = Math.max(marcaDagua, partida.getAlteracao());
         }
 
-        return new ArrayList<>(tabela.values()).stream()
+        // copias: quem serializa a resposta nao ve o proximo GET mexendo nas linhas
+        return tabela.values().stream()
+                .map(linha -> new TabelaDTO(linha.getTime(), linha.getPontos(), linha.getGolsPro(),
+                        linha.getGolsContra()))
                 .sorted(Comparator.comparing(TabelaDTO::getPontos).reversed())
                 .collect(Collectors.toList());
     }
 
-    private void processarTime(Map<String, TabelaDTO> tabela, String time, int golsPro, int golsContra) {
+    // sinal 1 soma o resultado aos times, -1 retira
+    private void processarPartida(AlteracaoPartidaDTO partida, int sinal) {
+        if (partida.getStatus().equals("REALIZADA")) {
+            processarTime(partida.getNomeMandante(), partida.getPlacarMandante(), partida.getPlacarVisitante(), sinal);
+            processarTime(partida.getNomeVisitante(), partida.getPlacarVisitante(), partida.getPlacarMandante(), sinal);
+        }
+    }
+
+    private void processarTime(String time, int golsPro, int golsContra, int sinal) {
         TabelaDTO tabelaTime = tabela.getOrDefault(time, new TabelaDTO(time, 0, 0, 0));
 
-        tabelaTime.setGolsPro(tabelaTime.getGolsPro() + golsPro);
-        tabelaTime.setGolsContra(tabelaTime.getGolsContra() + golsContra);
+        tabelaTime.setGolsPro(tabelaTime.getGolsPro() + golsPro * sinal);
+        tabelaTime.setGolsContra(tabelaTime.getGolsContra() + golsContra * sinal);
 
         if (golsPro > golsContra) {
-            tabelaTime.setPontos(tabelaTime.getPontos() + 3); // Vitória
+            tabelaTime.setPontos(tabelaTime.getPontos() + 3 * sinal); // Vitória
         } else if (golsPro == golsContra) {
-            tabelaTime.setPontos(tabelaTime.getPontos() + 1); // Empate
+            tabelaTime.setPontos(tabelaTime.getPontos() + sinal); // Empate
         }
 
         tabela.put(time, tabelaTime);
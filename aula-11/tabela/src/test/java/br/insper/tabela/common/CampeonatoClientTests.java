@@ -0,0 +1,221 @@
+package br.insper.tabela.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@ExtendWith(MockitoExtension.class)
+public class CampeonatoClientTests {
+
+    CampeonatoClient campeonatoClient;
+
+    @Mock
+    RestTemplate restTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        campeonatoClient = new CampeonatoClient(restTemplate, new SimpleMeterRegistry(), 2, 1, 50, 3, 10_000);
+    }
+
+    @Test
+    public void testCircuitoAbreDepoisDeFalhasSeguidas() {
+        Mockito.when(restTemplate.getForEntity("/partida/{id}", String.class, 1))
+                .thenThrow(HttpServerErrorException.create(HttpStatus.INTERNAL_SERVER_ERROR, "Erro", null, null, null));
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertThrows(CampeonatoIndisponivelException.class,
+                    () -> campeonatoClient.get("/partida/{id}", String.class, 1));
+        }
+        Assertions.assertEquals(CircuitBreaker.Estado.ABERTO, campeonatoClient.getEstadoCircuito());
+
+        // com o circuito aberto a chamada nem chega no campeonato
+        Assertions.assertThrows(CampeonatoIndisponivelException.class,
+                () -> campeonatoClient.get("/partida/{id}", String.class, 1));
+        Mockito.verify(restTemplate, Mockito.times(3))
+                .getForEntity("/partida/{id}", String.class, 1);
+    }
+
+    @Test
+    public void testPartidaNaoEncontradaNaoAbreCircuito() {
+        Mockito.when(restTemplate.getForEntity("/partida/{id}", String.class, 1))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertThrows(HttpClientErrorException.NotFound.class,
+                    () -> campeonatoClient.get("/partida/{id}", String.class, 1));
+        }
+        Assertions.assertEquals(CircuitBreaker.Estado.FECHADO, campeonatoClient.getEstadoCircuito());
+    }
+
+    @Test
+    public void testBulkheadRejeitaChamadaExcedente() throws InterruptedException {
+        CountDownLatch emAndamento = new CountDownLatch(2);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Mockito.when(restTemplate.getForEntity("/partida/{id}", String.class, 1))
+                .thenAnswer(invocation -> {
+                    emAndamento.countDown();
+                    liberar.await(5, TimeUnit.SECONDS);
+                    return ResponseEntity.ok("{}");
+                });
+
+        List<Thread> lentas = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            lentas.add(Thread.ofVirtual().start(
+                    () -> campeonatoClient.get("/partida/{id}", String.class, 1)));
+        }
+        Assertions.assertTrue(emAndamento.await(5, TimeUnit.SECONDS));
+
+        Assertions.assertThrows(CampeonatoIndisponivelException.class,
+                () -> campeonatoClient.get("/partida/{id}", String.class, 2));
+
+        liberar.countDown();
+        for (Thread lenta : lentas) {
+            lenta.join();
+        }
+        Mockito.verify(restTemplate, Mockito.never()).getForEntity("/partida/{id}", String.class, 2);
+    }
+
+    @Test
+    public void testLoteNaoOcupaAsVagasDasChamadasAvulsas() throws InterruptedException {
+        CountDownLatch emAndamento = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Mockito.when(restTemplate.getForEntity("/partida/{id}", String.class, 1))
+                .thenAnswer(invocation -> {
+                    emAndamento.countDown();
+                    liberar.await(5, TimeUnit.SECONDS);
+                    return ResponseEntity.ok("{}");
+                });
+        Mockito.when(restTemplate.getForEntity("/partida/{id}", String.class, 2))
+                .thenReturn(ResponseEntity.ok("{}"));
+
+        // a busca do lote fica com a unica vaga de lote; a segunda espera e desiste
+        Thread lote = Thread.ofVirtual().start(
+                () -> campeonatoClient.getLote(2000, "/partida/{id}", String.class, 1));
+        Assertions.assertTrue(emAndamento.await(5, TimeUnit.SECONDS));
+        Assertions.assertThrows(CampeonatoIndisponivelException.class,
+                () -> campeonatoClient.getLote(50, "/partida/{id}", String.class, 2));
+
+        // a chamada avulsa ainda tem a vaga dela
+        Assertions.assertNotNull(campeonatoClient.get("/partida/{id}", String.class, 2).getBody());
+
+        liberar.countDown();
+        lote.join();
+    }
+
+    @Test
+    public void testLoteNaoPodeOcuparTodoOBulkhead() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new CampeonatoClient(restTemplate, new SimpleMeterRegistry(), 2, 2, 50, 3, 10_000));
+    }
+
+    @Test
+    public void testChamadasAlemDoBulkheadEsperamAVezDentroDoPrazo() throws InterruptedException {
+        Mockito.when(restTemplate.getForEntity(Mockito.eq("/partida/{id}"), Mockito.eq(String.class),
+                        Mockito.any(Object[].class)))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(20);
+                    return ResponseEntity.ok("{}");
+                });
+
+        // um lote de 5 buscas com uma vaga so no bulkhead
+        AtomicInteger respondidas = new AtomicInteger();
+        List<Thread> buscas = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int id = i;
+            buscas.add(Thread.ofVirtual().start(() -> {
+                campeonatoClient.getLote(2000, "/partida/{id}", String.class, id);
+                respondidas.incrementAndGet();
+            }));
+        }
+        for (Thread busca : buscas) {
+            busca.join();
+        }
+
+        Assertions.assertEquals(5, respondidas.get());
+    }
+
+    @Test
+    public void testChamadaCanceladaPorQuemChamouNaoAbreCircuito() throws InterruptedException {
+        Semaphore emAndamento = new Semaphore(0);
+        Mockito.when(restTemplate.getForEntity("/partida/{id}", String.class, 1))
+                .thenAnswer(invocation -> {
+                    emAndamento.release();
+                    Thread.sleep(10_000);
+                    return ResponseEntity.ok("{}");
+                });
+
+        for (int i = 0; i < 3; i++) {
+            CountDownLatch terminou = new CountDownLatch(1);
+            Thread busca = Thread.ofVirtual().start(() -> {
+                try {
+                    campeonatoClient.get("/partida/{id}", String.class, 1);
+                } catch (Exception e) {
+                    // cancelada
+                } finally {
+                    terminou.countDown();
+                }
+            });
+            Assertions.assertTrue(emAndamento.tryAcquire(5, TimeUnit.SECONDS));
+            busca.interrupt();
+            Assertions.assertTrue(terminou.await(5, TimeUnit.SECONDS));
+        }
+
+        Assertions.assertEquals(CircuitBreaker.Estado.FECHADO, campeonatoClient.getEstadoCircuito());
+    }
+
+    @Test
+    public void testCircuitoMeioAbertoDeixaPassarUmaChamadaDeTeste() {
+        AtomicLong agora = new AtomicLong();
+        CircuitBreaker circuitBreaker = new CircuitBreaker(1, 1000, agora::get);
+
+        Assertions.assertTrue(circuitBreaker.permitir());
+        circuitBreaker.registrarFalha();
+        Assertions.assertFalse(circuitBreaker.permitir());
+
+        agora.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        Assertions.assertTrue(circuitBreaker.permitir());
+        Assertions.assertFalse(circuitBreaker.permitir());
+
+        // chamada de teste cancelada: outra pode tentar
+        circuitBreaker.registrarCancelamento();
+        Assertions.assertTrue(circuitBreaker.permitir());
+
+        circuitBreaker.registrarSucesso();
+        Assertions.assertEquals(CircuitBreaker.Estado.FECHADO, circuitBreaker.getEstado());
+        Assertions.assertTrue(circuitBreaker.permitir());
+    }
+
+    @Test
+    public void testRestTemplateChamaOCampeonatoConfigurado() throws Exception {
+        CampeonatoClientConfig config = new CampeonatoClientConfig();
+        try (PoolingHttpClientConnectionManager connectionManager =
+                     config.campeonatoConnectionManager(new SimpleMeterRegistry(), 1, 1000, 2000)) {
+            RestTemplate restTemplate = config.restTemplate(new RestTemplateBuilder(), connectionManager,
+                    "http://campeonato:8080", 2000, 500);
+
+            Assertions.assertEquals(URI.create("http://campeonato:8080/partida/1"),
+                    restTemplate.getUriTemplateHandler().expand("/partida/{id}", 1));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package br.insper.loja.benchmark;
+
+import br.insper.loja.partida.dto.RetornarPartidaDTO;
+import br.insper.loja.partida.model.Partida;
+import br.insper.loja.time.model.Time;
+import br.insper.partida.contrato.PartidaEvento;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class Dados {
+
+    static final int TIMES = 20;
+
+    private Dados() {
+    }
+
+    static List<Time> getTimes() {
+        List<Time> times = new ArrayList<>();
+        for (int i = 0; i < TIMES; i++) {
+            Time time = new Time("Time " + i, "time-" + i, "Estadio " + i, "SP");
+            time.setId(i + 1);
+            times.add(time);
+        }
+        return times;
+    }
+
+    static List<Partida> getPartidas(int quantidade) {
+        List<Time> times = getTimes();
+        List<Partida> partidas = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            Partida partida = new Partida();
+            partida.setId(i + 1);
+            partida.setMandante(times.get(i % TIMES));
+            partida.setVisitante(times.get((i + 1 + i / TIMES) % TIMES));
+            partida.setPlacarMandante(i % 4);
+            partida.setPlacarVisitante(i % 3);
+            partida.setStatus(i % 2 == 0 ? "REALIZADA" : "AGENDADA");
+            partidas.add(partida);
+        }
+        return partidas;
+    }
+
+    static List<RetornarPartidaDTO> getRetornarPartidas(int quantidade) {
+        List<RetornarPartidaDTO> lista = new ArrayList<>();
+        for (Partida partida : getPartidas(quantidade)) {
+            lista.add(RetornarPartidaDTO.getRetornarPartidaDTO(partida));
+        }
+        return lista;
+    }
+
+    static PartidaEvento getPartidaEvento() {
+        PartidaEvento evento = new PartidaEvento();
+        evento.setId(123456);
+        evento.setIdMandante(7);
+        evento.setIdVisitante(12);
+        evento.setNomeMandante("São Paulo");
+        evento.setNomeVisitante("Palmeiras");
+        evento.setPlacarMandante(3);
+        evento.setPlacarVisitante(0);
+        evento.setStatus("REALIZADA");
+        evento.setVersao(5_000_000_000L);
+        return evento;
+    }
+
+}
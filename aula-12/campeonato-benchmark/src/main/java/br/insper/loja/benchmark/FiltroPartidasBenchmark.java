@@ -0,0 +1,51 @@
+package br.insper.loja.benchmark;
+
+import br.insper.loja.partida.dto.RetornarPartidaDTO;
+import br.insper.loja.partida.model.Partida;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// laco de filtro em memoria que listarPartidas usava antes da consulta paginada;
+// serve de referencia para comparar com ListarPartidasBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FiltroPartidasBenchmark {
+
+    @Param({"1000", "100000"})
+    private int quantidade;
+
+    private List<Partida> partidas;
+
+    @Setup
+    public void setUp() {
+        partidas = Dados.getPartidas(quantidade);
+    }
+
+    @Benchmark
+    public List<RetornarPartidaDTO> filtrarPorMandante() {
+        ArrayList<RetornarPartidaDTO> lista = new ArrayList<>();
+        for (Partida partida : partidas) {
+            if (partida.getMandante().getIdentificador().equals("time-3")) {
+                lista.add(RetornarPartidaDTO.getRetornarPartidaDTO(partida));
+            }
+        }
+        return lista;
+    }
+
+    @Benchmark
+    public List<RetornarPartidaDTO> mapearTodas() {
+        List<RetornarPartidaDTO> response = new ArrayList<>();
+        for (Partida partida : partidas) {
+            response.add(RetornarPartidaDTO.getRetornarPartidaDTO(partida));
+        }
+        return response;
+    }
+
+}
@@ -0,0 +1,50 @@
+package br.insper.loja.benchmark;
+
+import br.insper.loja.partida.dto.RetornarPartidaDTO;
+import br.insper.loja.time.model.Time;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"100", "1000"})
+    private int tamanho;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+
+    private List<RetornarPartidaDTO> partidas;
+
+    private List<Time> times;
+
+    @Setup
+    public void setUp() {
+        partidas = Dados.getRetornarPartidas(tamanho);
+        times = new ArrayList<>();
+        while (times.size() < tamanho) {
+            times.addAll(Dados.getTimes());
+        }
+    }
+
+    @Benchmark
+    public byte[] serializarPartidas() throws Exception {
+        return objectMapper.writeValueAsBytes(partidas);
+    }
+
+    @Benchmark
+    public byte[] serializarTimes() throws Exception {
+        return objectMapper.writeValueAsBytes(times);
+    }
+
+}
@@ -0,0 +1,89 @@
+package br.insper.loja.benchmark;
+
+import br.insper.loja.LojaApplication;
+import br.insper.loja.partida.dto.ItemLotePartidaDTO;
+import br.insper.loja.partida.dto.RetornarPartidaDTO;
+import br.insper.loja.partida.dto.SalvarPartidaDTO;
+import br.insper.loja.partida.service.PartidaService;
+import br.insper.loja.time.model.Time;
+import br.insper.loja.time.service.TimeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListarPartidasBenchmark {
+
+    @Param({"1000", "100000"})
+    private int quantidade;
+
+    private ConfigurableApplicationContext context;
+
+    private PartidaService partidaService;
+
+    private int ultimaPagina;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(LojaApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID(),
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--partidas.outbox.intervalo=3600000");
+        partidaService = context.getBean(PartidaService.class);
+        TimeService timeService = context.getBean(TimeService.class);
+
+        List<Integer> ids = new ArrayList<>();
+        for (Time time : Dados.getTimes()) {
+            time.setId(null);
+            ids.add(timeService.cadastrarTime(time).getId());
+        }
+
+        List<ItemLotePartidaDTO> itens = new ArrayList<>();
+        List<SalvarPartidaDTO> lote = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            SalvarPartidaDTO dto = new SalvarPartidaDTO();
+            dto.setMandante(ids.get(i % ids.size()));
+            dto.setVisitante(ids.get((i + 1) % ids.size()));
+            lote.add(dto);
+            if (lote.size() == 1000 || i == quantidade - 1) {
+                itens = partidaService.cadastrarPartidas(lote);
+                lote = new ArrayList<>();
+            }
+        }
+        ultimaPagina = itens.getLast().getPartida().getId() - 100;
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<RetornarPartidaDTO> primeiraPagina() {
+        return partidaService.listarPartidas(null, null, null, null, 100);
+    }
+
+    @Benchmark
+    public List<RetornarPartidaDTO> primeiraPaginaPorMandante() {
+        return partidaService.listarPartidas("time-3", null, null, null, 100);
+    }
+
+    @Benchmark
+    public List<RetornarPartidaDTO> paginaFinal() {
+        return partidaService.listarPartidas(null, null, null, ultimaPagina, 100);
+    }
+
+}
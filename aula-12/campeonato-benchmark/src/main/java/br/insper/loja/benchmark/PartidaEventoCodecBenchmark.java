@@ -0,0 +1,51 @@
+package br.insper.loja.benchmark;
+
+import br.insper.partida.contrato.PartidaEvento;
+import br.insper.partida.contrato.PartidaEventoCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PartidaEventoCodecBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private PartidaEvento evento;
+    private byte[] binario;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws Exception {
+        evento = Dados.getPartidaEvento();
+        binario = PartidaEventoCodec.encode(evento);
+        json = objectMapper.writeValueAsBytes(evento);
+    }
+
+    @Benchmark
+    public byte[] encodeBinario() {
+        return PartidaEventoCodec.encode(evento);
+    }
+
+    @Benchmark
+    public PartidaEvento decodeBinario() {
+        return PartidaEventoCodec.decode(binario);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws Exception {
+        return objectMapper.writeValueAsBytes(evento);
+    }
+
+    @Benchmark
+    public PartidaEvento decodeJson() throws Exception {
+        return objectMapper.readValue(json, PartidaEvento.class);
+    }
+
+}
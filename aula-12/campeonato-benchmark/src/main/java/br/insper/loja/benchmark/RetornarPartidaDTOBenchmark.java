@@ -0,0 +1,29 @@
+package br.insper.loja.benchmark;
+
+import br.insper.loja.partida.dto.RetornarPartidaDTO;
+import br.insper.loja.partida.model.Partida;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RetornarPartidaDTOBenchmark {
+
+    private Partida partida;
+
+    @Setup
+    public void setUp() {
+        partida = Dados.getPartidas(1).getFirst();
+    }
+
+    @Benchmark
+    public RetornarPartidaDTO getRetornarPartidaDTO() {
+        return RetornarPartidaDTO.getRetornarPartidaDTO(partida);
+    }
+
+}
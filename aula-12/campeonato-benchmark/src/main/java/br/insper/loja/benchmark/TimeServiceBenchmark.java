@@ -0,0 +1,58 @@
+package br.insper.loja.benchmark;
+
+import br.insper.loja.time.model.Time;
+import br.insper.loja.time.repository.TimeRepository;
+import br.insper.loja.time.service.TimeService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeServiceBenchmark {
+
+    private TimeService timeService;
+
+    private Time timeValido;
+
+    private Time timeInvalido;
+
+    @Setup
+    public void setUp() throws Exception {
+        // repositorio que so devolve o time recebido, para medir apenas a validacao
+        TimeRepository timeRepository = (TimeRepository) Proxy.newProxyInstance(
+                TimeRepository.class.getClassLoader(),
+                new Class<?>[]{TimeRepository.class},
+                (proxy, method, args) -> method.getName().equals("save") ? args[0] : null);
+
+        timeService = new TimeService();
+        Field campo = TimeService.class.getDeclaredField("timeRepository");
+        campo.setAccessible(true);
+        campo.set(timeService, timeRepository);
+
+        timeValido = new Time("Time 1", "time-1", "Estadio 1", "SP");
+        timeValido.setId(1);
+        timeInvalido = new Time("", "time-2", "Estadio 2", "SP");
+    }
+
+    @Benchmark
+    public Time cadastrarTimeValido() {
+        return timeService.cadastrarTime(timeValido);
+    }
+
+    @Benchmark
+    public Object cadastrarTimeInvalido() {
+        try {
+            return timeService.cadastrarTime(timeInvalido);
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+}
@@ -1,35 +1,40 @@
 package br.insper.loja.common;
 
-import br.insper.loja.partida.dto.RetornarPartidaDTO;
+import br.insper.partida.contrato.PartidaEvento;
+import br.insper.partida.contrato.PartidaEventoSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.core.ProducerFactory;
-import org.springframework.kafka.support.serializer.JsonSerializer;
-import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
 
-import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
 public class KafkaProducerConfig {
 
+    // bootstrap, acks, linger, batch, compressao e idempotencia vem de spring.kafka.producer.*
     @Bean
-    public ProducerFactory<String, RetornarPartidaDTO> producerFactory() {
-        Map<String, Object> config = new HashMap<>();
+    public ProducerFactory<String, PartidaEvento> producerFactory(KafkaProperties kafkaProperties,
+                                                                       MeterRegistry meterRegistry) {
+        Map<String, Object> config = kafkaProperties.buildProducerProperties(null);
 
-        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, PartidaEventoSerializer.class);
 
-        return new DefaultKafkaProducerFactory<>(config);
+        DefaultKafkaProducerFactory<String, PartidaEvento> factory = new DefaultKafkaProducerFactory<>(config);
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
-    public KafkaTemplate<String, RetornarPartidaDTO> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, PartidaEvento> kafkaTemplate(
+            ProducerFactory<String, PartidaEvento> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
     }
 }
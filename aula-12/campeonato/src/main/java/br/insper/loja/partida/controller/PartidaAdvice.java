@@ -3,6 +3,7 @@ package br.insper.loja.partida.controller;
 import br.insper.loja.common.Erro;
 import br.insper.loja.partida.exception.PartidaNaoEncontradaException;
 import br.insper.loja.time.exception.TimeNaoEncontradoException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -25,4 +26,16 @@ public class PartidaAdvice {
         return erro;
     }
 
+    // outra edicao da mesma partida comitou antes; o cliente rele e tenta de novo
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseBody
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Erro edicaoConcorrenteHandler(OptimisticLockingFailureException e) {
+        Erro erro = new Erro();
+        erro.setMensagem("Partida alterada por outra requisicao, tente novamente");
+        erro.setData(LocalDateTime.now());
+        erro.setCodigo(409);
+        return erro;
+    }
+
 }
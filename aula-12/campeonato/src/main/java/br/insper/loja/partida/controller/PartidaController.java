@@ -1,6 +1,9 @@
 package br.insper.loja.partida.controller;
 
+import br.insper.loja.partida.dto.AlteracaoPartidaDTO;
+import br.insper.loja.partida.dto.EditarLotePartidaDTO;
 import br.insper.loja.partida.dto.EditarPartidaDTO;
+import br.insper.loja.partida.dto.ItemLotePartidaDTO;
 import br.insper.loja.partida.dto.RetornarPartidaDTO;
 import br.insper.loja.partida.dto.SalvarPartidaDTO;
 import br.insper.loja.partida.service.PartidaService;
@@ -17,8 +20,18 @@ public class PartidaController {
     private PartidaService partidaService;
 
     @GetMapping("/partida")
-    public List<RetornarPartidaDTO> getPartida(@RequestParam(required = false) String mandante) {
-        return partidaService.listarPartidas(mandante);
+    public List<RetornarPartidaDTO> getPartida(@RequestParam(required = false) String mandante,
+                                               @RequestParam(required = false) String visitante,
+                                               @RequestParam(required = false) String status,
+                                               @RequestParam(required = false) Integer after,
+                                               @RequestParam(defaultValue = "100") Integer limit) {
+        return partidaService.listarPartidas(mandante, visitante, status, after, limit);
+    }
+
+    @GetMapping("/partida/alteracoes")
+    public List<AlteracaoPartidaDTO> getAlteracoes(@RequestParam(defaultValue = "0") Long desde,
+                                                   @RequestParam(defaultValue = "1000") Integer limit) {
+        return partidaService.listarAlteracoes(desde, limit);
     }
 
     @GetMapping("/partida/{id}")
@@ -32,6 +45,17 @@ public class PartidaController {
         return partidaService.cadastrarPartida(partida);
     }
 
+    @PostMapping("/partida/lote")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<ItemLotePartidaDTO> salvarPartidas(@RequestBody List<SalvarPartidaDTO> partidas) {
+        return partidaService.cadastrarPartidas(partidas);
+    }
+
+    @PostMapping("/partida/resultados")
+    public List<ItemLotePartidaDTO> editarPartidas(@RequestBody List<EditarLotePartidaDTO> partidas) {
+        return partidaService.editarPartidas(partidas);
+    }
+
     @PostMapping("/partida/{id}")
     @ResponseStatus(HttpStatus.CREATED)
     public RetornarPartidaDTO editarPartida(@RequestBody EditarPartidaDTO partida, @PathVariable Integer id) {
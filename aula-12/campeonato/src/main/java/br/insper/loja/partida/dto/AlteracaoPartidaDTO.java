@@ -0,0 +1,94 @@
+package br.insper.loja.partida.dto;
+
+// item de GET /partida/alteracoes: o estado atual da partida e o numero da
+// alteracao que o produziu. A versao e a mesma do evento no topico partidas,
+// para quem junta as duas fontes saber qual e a mais nova
+public class AlteracaoPartidaDTO {
+    private Integer id;
+    private Long alteracao;
+    private Long versao;
+    private String nomeMandante;
+    private String nomeVisitante;
+    private Integer placarMandante;
+    private Integer placarVisitante;
+    private String status;
+
+    public AlteracaoPartidaDTO() {
+    }
+
+    public AlteracaoPartidaDTO(Integer id, Long alteracao, Long versao, String nomeMandante, String nomeVisitante,
+                               Integer placarMandante, Integer placarVisitante, String status) {
+        this.id = id;
+        this.alteracao = alteracao;
+        this.versao = versao;
+        this.nomeMandante = nomeMandante;
+        this.nomeVisitante = nomeVisitante;
+        this.placarMandante = placarMandante;
+        this.placarVisitante = placarVisitante;
+        this.status = status;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Long getAlteracao() {
+        return alteracao;
+    }
+
+    public void setAlteracao(Long alteracao) {
+        this.alteracao = alteracao;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
+    public String getNomeMandante() {
+        return nomeMandante;
+    }
+
+    public void setNomeMandante(String nomeMandante) {
+        this.nomeMandante = nomeMandante;
+    }
+
+    public String getNomeVisitante() {
+        return nomeVisitante;
+    }
+
+    public void setNomeVisitante(String nomeVisitante) {
+        this.nomeVisitante = nomeVisitante;
+    }
+
+    public Integer getPlacarMandante() {
+        return placarMandante;
+    }
+
+    public void setPlacarMandante(Integer placarMandante) {
+        this.placarMandante = placarMandante;
+    }
+
+    public Integer getPlacarVisitante() {
+        return placarVisitante;
+    }
+
+    public void setPlacarVisitante(Integer placarVisitante) {
+        this.placarVisitante = placarVisitante;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
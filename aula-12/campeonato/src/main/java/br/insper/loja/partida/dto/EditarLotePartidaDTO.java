@@ -0,0 +1,13 @@
+package br.insper.loja.partida.dto;
+
+public class EditarLotePartidaDTO extends EditarPartidaDTO {
+    private Integer id;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,38 @@
+package br.insper.loja.partida.dto;
+
+public class ItemLotePartidaDTO {
+    private Integer indice;
+    private RetornarPartidaDTO partida;
+    private String erro;
+
+    public ItemLotePartidaDTO() {
+    }
+
+    public ItemLotePartidaDTO(Integer indice) {
+        this.indice = indice;
+    }
+
+    public Integer getIndice() {
+        return indice;
+    }
+
+    public void setIndice(Integer indice) {
+        this.indice = indice;
+    }
+
+    public RetornarPartidaDTO getPartida() {
+        return partida;
+    }
+
+    public void setPartida(RetornarPartidaDTO partida) {
+        this.partida = partida;
+    }
+
+    public String getErro() {
+        return erro;
+    }
+
+    public void setErro(String erro) {
+        this.erro = erro;
+    }
+}
@@ -0,0 +1,24 @@
+package br.insper.loja.partida.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// ultimo numero de alteracao entregue; uma linha por contador
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+public class ContadorAlteracao {
+    @Id
+    private String id;
+
+    private Long valor;
+
+    public ContadorAlteracao(String id, Long valor) {
+        this.id = id;
+        this.valor = valor;
+    }
+}
@@ -0,0 +1,31 @@
+package br.insper.loja.partida.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+public class EventoPartida {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "evento_partida_seq")
+    @SequenceGenerator(name = "evento_partida_seq", sequenceName = "evento_partida_seq", allocationSize = 50)
+    private Long id;
+
+    private Integer idPartida;
+
+    @Column(length = 4000)
+    private String payload;
+
+    private LocalDateTime dataCriacao;
+
+    // motivo de uma falha que nao passa tentando de novo (payload ilegivel,
+    // mensagem grande demais); o evento sai da fila de envio e fica aqui para
+    // alguem olhar
+    @Column(length = 1000)
+    private String falha;
+
+}
@@ -6,11 +6,18 @@ import lombok.Getter;
 import lombok.Setter;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_partida_mandante", columnList = "id_mandante, id"),
+        @Index(name = "idx_partida_visitante", columnList = "id_visitante, id"),
+        @Index(name = "idx_partida_status", columnList = "status, id"),
+        @Index(name = "idx_partida_alteracao", columnList = "alteracao")
+})
 @Getter
 @Setter
 public class Partida {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "partida_seq")
+    @SequenceGenerator(name = "partida_seq", sequenceName = "partida_seq", allocationSize = 50)
     private Integer id;
 
     private String identificador;
@@ -28,5 +35,14 @@ public class Partida {
 
     private String status;
 
+    // incrementada pelo hibernate a cada update, com lock otimista: de duas
+    // edicoes concorrentes so uma comita, entao cada versao sai em um unico
+    // evento e os consumidores reconhecem duplicatas e correcoes por ela
+    @Version
+    private Long versao;
+
+    // numero global, crescente a cada vez que a partida e salva; e o que
+    // GET /partida/alteracoes usa como marca d'agua
+    private Long alteracao;
 
 }
@@ -0,0 +1,18 @@
+package br.insper.loja.partida.repository;
+
+import br.insper.loja.partida.model.ContadorAlteracao;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+public interface ContadorAlteracaoRepository extends JpaRepository<ContadorAlteracao, String> {
+
+    // select for update: a linha fica travada ate o fim da transacao
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from ContadorAlteracao c where c.id = :id")
+    Optional<ContadorAlteracao> travar(String id);
+
+}
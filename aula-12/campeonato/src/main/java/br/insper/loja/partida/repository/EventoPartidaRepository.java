@@ -0,0 +1,22 @@
+package br.insper.loja.partida.repository;
+
+import br.insper.loja.partida.model.EventoPartida;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EventoPartidaRepository extends JpaRepository<EventoPartida, Long> {
+
+    List<EventoPartida> findAllByFalhaIsNullOrderByIdAsc(Limit limit);
+
+    long countByFalhaIsNull();
+
+    long countByFalhaIsNotNull();
+
+    @Query("select min(e.dataCriacao) from EventoPartida e where e.falha is null")
+    LocalDateTime buscarDataMaisAntiga();
+
+}
@@ -1,11 +1,42 @@
 package br.insper.loja.partida.repository;
 
+import br.insper.loja.partida.dto.AlteracaoPartidaDTO;
+import br.insper.loja.partida.dto.RetornarPartidaDTO;
 import br.insper.loja.partida.model.Partida;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface PartidaRepository extends JpaRepository<Partida, Integer> {
 
+    @Query("select new br.insper.loja.partida.dto.RetornarPartidaDTO(" +
+            "p.id, m.nome, v.nome, p.placarMandante, p.placarVisitante, p.status) " +
+            "from Partida p join p.mandante m join p.visitante v " +
+            "where (:mandante is null or m.identificador = :mandante) " +
+            "and (:visitante is null or v.identificador = :visitante) " +
+            "and (:status is null or p.status = :status) " +
+            "and p.id > :after " +
+            "order by p.id")
+    List<RetornarPartidaDTO> listarPartidas(String mandante, String visitante, String status, Integer after, Limit limit);
+
+    @Query("select new br.insper.loja.partida.dto.RetornarPartidaDTO(" +
+            "p.id, m.nome, v.nome, p.placarMandante, p.placarVisitante, p.status) " +
+            "from Partida p join p.mandante m join p.visitante v " +
+            "where p.id = :id")
+    Optional<RetornarPartidaDTO> buscarPartida(Integer id);
+
+    @Query("select new br.insper.loja.partida.dto.AlteracaoPartidaDTO(" +
+            "p.id, p.alteracao, p.versao, m.nome, v.nome, p.placarMandante, p.placarVisitante, p.status) " +
+            "from Partida p join p.mandante m join p.visitante v " +
+            "where p.alteracao > :desde " +
+            "order by p.alteracao")
+    List<AlteracaoPartidaDTO> listarAlteracoes(Long desde, Limit limit);
+
+    @Query("select p from Partida p join fetch p.mandante join fetch p.visitante where p.id in :ids")
+    List<Partida> buscarPartidas(Collection<Integer> ids);
 
 }
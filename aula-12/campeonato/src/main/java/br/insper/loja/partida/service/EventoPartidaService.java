@@ -0,0 +1,195 @@
+package br.insper.loja.partida.service;
+
+import br.insper.loja.partida.model.EventoPartida;
+import br.insper.loja.partida.model.Partida;
+import br.insper.loja.partida.repository.EventoPartidaRepository;
+import br.insper.partida.contrato.PartidaEvento;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class EventoPartidaService implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(EventoPartidaService.class);
+
+    @Autowired
+    private EventoPartidaRepository eventoPartidaRepository;
+
+    @Autowired
+    private KafkaTemplate<String, PartidaEvento> kafkaTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${partidas.outbox.tamanho-lote:500}")
+    private int tamanhoLote;
+
+    @Value("${partidas.outbox.timeout-envio:10000}")
+    private long timeoutEnvio;
+
+    public void registrar(List<Partida> partidas) {
+        List<EventoPartida> eventos = new ArrayList<>();
+        for (Partida partida : partidas) {
+            EventoPartida evento = new EventoPartida();
+            evento.setIdPartida(partida.getId());
+            evento.setPayload(toJson(getPartidaEvento(partida)));
+            evento.setDataCriacao(LocalDateTime.now());
+            eventos.add(evento);
+        }
+        eventoPartidaRepository.saveAll(eventos);
+    }
+
+    // os eventos saem na ordem do id; se um envio falha, ele e todos os
+    // seguintes ficam na tabela e sao reenviados no proximo ciclo, entao a
+    // ultima mensagem de cada partida e sempre o estado mais recente. um evento
+    // que nunca vai passar (isDefinitiva) e marcado com a falha e pulado, senao
+    // travaria a fila inteira atras dele
+    @Scheduled(fixedDelayString = "${partidas.outbox.intervalo:500}")
+    public void publicarPendentes() {
+        List<EventoPartida> eventos = eventoPartidaRepository.findAllByFalhaIsNullOrderByIdAsc(Limit.of(tamanhoLote));
+
+        while (!eventos.isEmpty()) {
+            boolean interrompido = false;
+            List<CompletableFuture<SendResult<String, PartidaEvento>>> envios = new ArrayList<>();
+            for (EventoPartida evento : eventos) {
+                try {
+                    // chave pelo id da partida: todos os eventos de uma partida vao para a mesma particao
+                    envios.add(kafkaTemplate.send("partidas", String.valueOf(evento.getIdPartida()),
+                            fromJson(evento.getPayload())));
+                } catch (Exception e) {
+                    if (!isDefinitiva(e)) {
+                        log.warn("Falha ao publicar evento da partida {}, nova tentativa no proximo ciclo",
+                                evento.getIdPartida(), e);
+                        interrompido = true;
+                        break;
+                    }
+                    marcarFalha(evento, e);
+                    envios.add(null);
+                }
+            }
+            kafkaTemplate.flush();
+
+            List<Long> enviados = new ArrayList<>();
+            for (int i = 0; i < envios.size(); i++) {
+                if (envios.get(i) == null) {
+                    continue;
+                }
+                try {
+                    envios.get(i).get(timeoutEnvio, TimeUnit.MILLISECONDS);
+                    enviados.add(eventos.get(i).getId());
+                } catch (Exception e) {
+                    if (isDefinitiva(e)) {
+                        marcarFalha(eventos.get(i), e);
+                        continue;
+                    }
+                    log.warn("Falha ao publicar evento da partida {}, nova tentativa no proximo ciclo",
+                            eventos.get(i).getIdPartida(), e);
+                    interrompido = true;
+                    break;
+                }
+            }
+            eventoPartidaRepository.deleteAllByIdInBatch(enviados);
+
+            if (interrompido) {
+                return;
+            }
+            eventos = eventoPartidaRepository.findAllByFalhaIsNullOrderByIdAsc(Limit.of(tamanhoLote));
+        }
+    }
+
+    // falhas que se repetiriam em toda tentativa: o payload nao e um evento
+    // valido ou o kafka recusa a mensagem em si. o resto (broker fora, timeout)
+    // passa sozinho e o evento fica na fila
+    private boolean isDefinitiva(Throwable e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof JsonProcessingException
+                    || causa instanceof SerializationException
+                    || causa instanceof RecordTooLargeException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void marcarFalha(EventoPartida evento, Exception e) {
+        log.error("Evento {} da partida {} nao pode ser publicado e foi separado",
+                evento.getId(), evento.getIdPartida(), e);
+        String falha = e.toString();
+        evento.setFalha(falha.length() > 1000 ? falha.substring(0, 1000) : falha);
+        eventoPartidaRepository.save(evento);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("partidas.outbox.pendentes", eventoPartidaRepository, EventoPartidaRepository::countByFalhaIsNull)
+                .description("Eventos de partida ainda nao publicados")
+                .register(registry);
+        Gauge.builder("partidas.outbox.falhas", eventoPartidaRepository, EventoPartidaRepository::countByFalhaIsNotNull)
+                .description("Eventos de partida separados por falha definitiva")
+                .register(registry);
+        Gauge.builder("partidas.outbox.atraso", this, EventoPartidaService::getAtrasoEmSegundos)
+                .description("Idade em segundos do evento pendente mais antigo")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    private double getAtrasoEmSegundos() {
+        LocalDateTime maisAntigo = eventoPartidaRepository.buscarDataMaisAntiga();
+        if (maisAntigo == null) {
+            return 0;
+        }
+        return Duration.between(maisAntigo, LocalDateTime.now()).toMillis() / 1000.0;
+    }
+
+    private PartidaEvento getPartidaEvento(Partida partida) {
+        PartidaEvento evento = new PartidaEvento();
+        evento.setId(partida.getId());
+        evento.setIdMandante(partida.getMandante().getId());
+        evento.setIdVisitante(partida.getVisitante().getId());
+        evento.setNomeMandante(partida.getMandante().getNome());
+        evento.setNomeVisitante(partida.getVisitante().getNome());
+        evento.setPlacarMandante(partida.getPlacarMandante());
+        evento.setPlacarVisitante(partida.getPlacarVisitante());
+        evento.setStatus(partida.getStatus());
+        evento.setVersao(partida.getVersao());
+        return evento;
+    }
+
+    private String toJson(PartidaEvento partida) {
+        try {
+            return objectMapper.writeValueAsString(partida);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Erro ao serializar partida " + partida.getId(), e);
+        }
+    }
+
+    private PartidaEvento fromJson(String payload) {
+        try {
+            return objectMapper.readValue(payload, PartidaEvento.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Erro ao ler evento de partida", e);
+        }
+    }
+
+}
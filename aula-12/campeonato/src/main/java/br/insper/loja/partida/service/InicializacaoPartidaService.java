@@ -0,0 +1,101 @@
+package br.insper.loja.partida.service;
+
+import br.insper.loja.partida.model.ContadorAlteracao;
+import br.insper.loja.partida.repository.ContadorAlteracaoRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// acerta no banco o que o codigo atual espera e as versoes antigas nao
+// gravavam; roda no @PostConstruct, depois do ddl do hibernate (o repositorio
+// so existe depois do EntityManagerFactory) e antes do tomcat, do kafka e do
+// scheduler subirem, entao nenhuma requisicao ve o banco pela metade
+@Service
+public class InicializacaoPartidaService {
+
+    private static final Logger log = LoggerFactory.getLogger(InicializacaoPartidaService.class);
+
+    private static final int TAMANHO_LOTE = 1000;
+
+    // mesmo allocationSize do gerador de Partida
+    private static final long ALOCACAO = 50;
+
+    @Autowired
+    private ContadorAlteracaoRepository contadorAlteracaoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void inicializar() {
+        ajustarSequencia();
+        transactionTemplate.executeWithoutResult(status -> numerarAlteracoes());
+        completarVersoes();
+    }
+
+    // bancos criados quando o id era identity ganham a partida_seq do ddl
+    // update comecando em 1, e o primeiro insert colidiria com as partidas que
+    // ja existem. a sequencia so anda para frente: ate max(id) + ALOCACAO, que
+    // deixa o bloco inteiro do pooled acima do maior id
+    private void ajustarSequencia() {
+        Long maximo = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from partida", Long.class);
+        Long proximo = jdbcTemplate.queryForObject(
+                "select base_value from information_schema.sequences where sequence_name = 'PARTIDA_SEQ'",
+                Long.class);
+        if (proximo < maximo + ALOCACAO) {
+            log.info("Sequencia partida_seq reiniciada em {}", maximo + ALOCACAO);
+            jdbcTemplate.execute("alter sequence partida_seq restart with " + (maximo + ALOCACAO));
+        }
+    }
+
+    // partidas gravadas antes do contador existir ficaram com alteracao nula e
+    // nunca apareceriam em /partida/alteracoes; elas recebem numeros depois do
+    // ultimo entregue, na ordem do id. o contador e criado aqui para que
+    // marcarAlteracao sempre o encontre e nunca precise inseri-lo
+    private void numerarAlteracoes() {
+        ContadorAlteracao contador = contadorAlteracaoRepository.travar(PartidaService.CONTADOR_ALTERACAO)
+                .orElseGet(() -> contadorAlteracaoRepository.save(
+                        new ContadorAlteracao(PartidaService.CONTADOR_ALTERACAO, 0L)));
+        long valor = contador.getValor();
+
+        List<Integer> ids = buscarSemAlteracao();
+        while (!ids.isEmpty()) {
+            List<Object[]> alteracoes = new ArrayList<>();
+            for (Integer id : ids) {
+                alteracoes.add(new Object[]{++valor, id});
+            }
+            jdbcTemplate.batchUpdate("update partida set alteracao = ? where id = ?", alteracoes);
+            ids = buscarSemAlteracao();
+        }
+
+        if (valor > contador.getValor()) {
+            log.info("Partidas sem alteracao numeradas de {} a {}", contador.getValor() + 1, valor);
+            contador.setValor(valor);
+        }
+    }
+
+    // versao virou @Version: o hibernate nao incrementa uma versao nula, entao
+    // partidas antigas sem versao comecam em 0, como as criadas hoje
+    private void completarVersoes() {
+        int atualizadas = jdbcTemplate.update("update partida set versao = 0 where versao is null");
+        if (atualizadas > 0) {
+            log.info("{} partidas sem versao iniciadas em 0", atualizadas);
+        }
+    }
+
+    private List<Integer> buscarSemAlteracao() {
+        return jdbcTemplate.queryForList(
+                "select id from partida where alteracao is null order by id limit ?", Integer.class, TAMANHO_LOTE);
+    }
+
+}
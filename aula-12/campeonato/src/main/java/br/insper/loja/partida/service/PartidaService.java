@@ -1,33 +1,51 @@
 package br.insper.loja.partida.service;
 
+import br.insper.loja.partida.dto.AlteracaoPartidaDTO;
+import br.insper.loja.partida.dto.EditarLotePartidaDTO;
 import br.insper.loja.partida.dto.EditarPartidaDTO;
+import br.insper.loja.partida.dto.ItemLotePartidaDTO;
 import br.insper.loja.partida.exception.PartidaNaoEncontradaException;
+import br.insper.loja.partida.model.ContadorAlteracao;
 import br.insper.loja.partida.model.Partida;
+import br.insper.loja.partida.repository.ContadorAlteracaoRepository;
 import br.insper.loja.partida.repository.PartidaRepository;
 import br.insper.loja.partida.dto.RetornarPartidaDTO;
 import br.insper.loja.partida.dto.SalvarPartidaDTO;
 import br.insper.loja.time.model.Time;
 import br.insper.loja.time.service.TimeService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class PartidaService {
 
+    public static final int LIMITE_MAXIMO = 1000;
+
+    static final String CONTADOR_ALTERACAO = "partida";
+
     @Autowired
     private PartidaRepository partidaRepository;
 
+    @Autowired
+    private ContadorAlteracaoRepository contadorAlteracaoRepository;
+
     @Autowired
     private TimeService timeService;
 
     @Autowired
-    private KafkaTemplate<String, RetornarPartidaDTO> kafkaTemplate;
+    private EventoPartidaService eventoPartidaService;
 
+    @Transactional
     public RetornarPartidaDTO cadastrarPartida(SalvarPartidaDTO salvarPartidaDTO) {
 
         Time mandante = timeService.getTime(salvarPartidaDTO.getMandante());
@@ -37,6 +55,7 @@ public class PartidaService {
         partida.setMandante(mandante);
         partida.setVisitante(visitante);
         partida.setStatus("AGENDADA");
+        marcarAlteracao(List.of(partida));
 
         partida = partidaRepository.save(partida);
         return RetornarPartidaDTO.getRetornarPartidaDTO(partida);
@@ -44,47 +63,169 @@ public class PartidaService {
 
 
 
-    public List<RetornarPartidaDTO> listarPartidas(String mandante) {
-        List<Partida> partidas = partidaRepository.findAll();
-        if  (mandante != null) {
-            ArrayList<RetornarPartidaDTO> lista = new ArrayList<>();
+    @Transactional
+    public List<ItemLotePartidaDTO> cadastrarPartidas(List<SalvarPartidaDTO> lote) {
 
-            for (Partida partida  : partidas) {
-                if (partida.getMandante().getIdentificador().equals(mandante))  {
-                    lista.add(RetornarPartidaDTO.getRetornarPartidaDTO(partida));
-                }
+        Set<Integer> ids = new HashSet<>();
+        for (SalvarPartidaDTO dto : lote) {
+            if (dto.getMandante() != null) {
+                ids.add(dto.getMandante());
+            }
+            if (dto.getVisitante() != null) {
+                ids.add(dto.getVisitante());
             }
-            return lista;
         }
+        Map<Integer, Time> times = timeService.getTimes(ids);
 
-        List<RetornarPartidaDTO> response = new ArrayList<>();
-        for (Partida partida : partidas) {
-            response.add(RetornarPartidaDTO.getRetornarPartidaDTO(partida));
+        List<ItemLotePartidaDTO> itens = new ArrayList<>();
+        List<Partida> partidas = new ArrayList<>();
+        List<ItemLotePartidaDTO> itensSalvos = new ArrayList<>();
+
+        for (int i = 0; i < lote.size(); i++) {
+            SalvarPartidaDTO dto = lote.get(i);
+            ItemLotePartidaDTO item = new ItemLotePartidaDTO(i);
+            itens.add(item);
+
+            if (dto.getMandante() == null || dto.getVisitante() == null) {
+                item.setErro("Mandante e visitante são obrigatórios");
+                continue;
+            }
+            Time mandante = times.get(dto.getMandante());
+            if (mandante == null) {
+                item.setErro("Time " + dto.getMandante() + " não encontrado");
+                continue;
+            }
+            Time visitante = times.get(dto.getVisitante());
+            if (visitante == null) {
+                item.setErro("Time " + dto.getVisitante() + " não encontrado");
+                continue;
+            }
+
+            Partida partida = new Partida();
+            partida.setMandante(mandante);
+            partida.setVisitante(visitante);
+            partida.setStatus("AGENDADA");
+            partidas.add(partida);
+            itensSalvos.add(item);
         }
-        return response;
+
+        marcarAlteracao(partidas);
+        partidas = partidaRepository.saveAll(partidas);
+        for (int i = 0; i < partidas.size(); i++) {
+            itensSalvos.get(i).setPartida(RetornarPartidaDTO.getRetornarPartidaDTO(partidas.get(i)));
+        }
+        return itens;
+    }
+
+    public List<RetornarPartidaDTO> listarPartidas(String mandante, String visitante, String status,
+                                                   Integer after, Integer limit) {
+        if (after == null) {
+            after = 0;
+        }
+        // limit zero ou negativo vira 1, nao a maior pagina
+        limit = limit == null ? LIMITE_MAXIMO : Math.clamp(limit, 1, LIMITE_MAXIMO);
+
+        return partidaRepository.listarPartidas(mandante, visitante, status, after, Limit.of(limit));
     }
 
+    @Transactional
     public RetornarPartidaDTO editarPartida(EditarPartidaDTO dto, Integer id) {
 
         Partida partida = partidaRepository.findById(id).get();
-        partida.setPlacarMandante(dto.getPlacarMandante());
-        partida.setPlacarVisitante(dto.getPlacarVisitante());
-        partida.setStatus("REALIZADA");
+        registrarResultado(partida, dto);
+        marcarAlteracao(List.of(partida));
 
-        partida = partidaRepository.save(partida);
+        // o flush faz o update com a versao nova (ou falha se outra edicao
+        // comitou antes) e o evento ja sai com ela
+        partida = partidaRepository.saveAndFlush(partida);
 
         RetornarPartidaDTO retornarPartidaDTO =
                 RetornarPartidaDTO.getRetornarPartidaDTO(partida);
-        kafkaTemplate.send("partidas", retornarPartidaDTO);
+        eventoPartidaService.registrar(List.of(partida));
 
         return  retornarPartidaDTO;
 
     }
 
+    @Transactional
+    public List<ItemLotePartidaDTO> editarPartidas(List<EditarLotePartidaDTO> lote) {
+
+        Set<Integer> ids = new HashSet<>();
+        for (EditarLotePartidaDTO dto : lote) {
+            if (dto.getId() != null) {
+                ids.add(dto.getId());
+            }
+        }
+        Map<Integer, Partida> partidas = new HashMap<>();
+        for (Partida partida : partidaRepository.buscarPartidas(ids)) {
+            partidas.put(partida.getId(), partida);
+        }
+
+        List<ItemLotePartidaDTO> itens = new ArrayList<>();
+        List<Partida> alteradas = new ArrayList<>();
+        for (int i = 0; i < lote.size(); i++) {
+            EditarLotePartidaDTO dto = lote.get(i);
+            ItemLotePartidaDTO item = new ItemLotePartidaDTO(i);
+            itens.add(item);
+
+            Partida partida = partidas.get(dto.getId());
+            if (partida == null) {
+                item.setErro("Partida " + dto.getId() + " não encontrada");
+                continue;
+            }
+            // sem save: os updates saem em batch no flush abaixo
+            registrarResultado(partida, dto);
+
+            item.setPartida(RetornarPartidaDTO.getRetornarPartidaDTO(partida));
+            alteradas.add(partida);
+        }
+
+        marcarAlteracao(alteradas);
+        partidaRepository.flush();
+        eventoPartidaService.registrar(alteradas);
+        return itens;
+    }
+
+    // partidas com alteracao maior que desde, na ordem da alteracao; quem le
+    // guarda a maior alteracao recebida e pede a partir dela na proxima vez
+    public List<AlteracaoPartidaDTO> listarAlteracoes(Long desde, Integer limit) {
+        if (desde == null) {
+            desde = 0L;
+        }
+        limit = limit == null ? LIMITE_MAXIMO : Math.clamp(limit, 1, LIMITE_MAXIMO);
+
+        return partidaRepository.listarAlteracoes(desde, Limit.of(limit));
+    }
+
+    // os numeros saem de um contador travado (select for update) ate o commit:
+    // a transacao seguinte so pega o proximo numero depois que esta comitou,
+    // entao as alteracoes ficam visiveis na ordem dos numeros e quem le a partir
+    // de uma marca d'agua nunca pula uma alteracao que ainda ia comitar
+    private void marcarAlteracao(List<Partida> partidas) {
+        if (partidas.isEmpty()) {
+            return;
+        }
+        // o contador e criado na subida (InicializacaoPartidaService); inseri-lo
+        // aqui faria duas primeiras alteracoes concorrentes brigarem pela chave
+        ContadorAlteracao contador = contadorAlteracaoRepository.travar(CONTADOR_ALTERACAO)
+                .orElseThrow(() -> new IllegalStateException("Contador de alteracoes nao inicializado"));
+        long valor = contador.getValor();
+        for (Partida partida : partidas) {
+            partida.setAlteracao(++valor);
+        }
+        contador.setValor(valor);
+    }
+
+    private void registrarResultado(Partida partida, EditarPartidaDTO dto) {
+        partida.setPlacarMandante(dto.getPlacarMandante());
+        partida.setPlacarVisitante(dto.getPlacarVisitante());
+        partida.setStatus("REALIZADA");
+    }
+
     public RetornarPartidaDTO getPartida(Integer id) {
-        Optional<Partida> partida = partidaRepository.findById(id);
+        Optional<RetornarPartidaDTO> partida = partidaRepository.buscarPartida(id);
         if (partida.isPresent()) {
-            return RetornarPartidaDTO.getRetornarPartidaDTO(partida.get());
+            return partida.get();
         }
         throw new PartidaNaoEncontradaException("Partida não encontrada");
     }
@@ -5,11 +5,14 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TimeRepository extends JpaRepository<Time, Integer> {
 
     public List<Time> findByEstado(String estado);
 
+    public Optional<Time> findByIdentificador(String identificador);
+
 
 }
@@ -3,24 +3,46 @@ package br.insper.loja.time.service;
 import br.insper.loja.time.exception.TimeNaoEncontradoException;
 import br.insper.loja.time.repository.TimeRepository;
 import br.insper.loja.time.model.Time;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 @Service
-public class TimeService {
+public class TimeService implements MeterBinder {
+
+    public static final int TAMANHO_CACHE = 1000;
 
     @Autowired
     private TimeRepository timeRepository;
 
+    private final Cache<Integer, Time> timesPorId = Caffeine.newBuilder()
+            .maximumSize(TAMANHO_CACHE)
+            .recordStats()
+            .build();
+
+    private final Cache<String, Time> timesPorIdentificador = Caffeine.newBuilder()
+            .maximumSize(TAMANHO_CACHE)
+            .recordStats()
+            .build();
+
     public Time cadastrarTime(Time time) {
         if (time.getNome().equals("")
                 || time.getIdentificador().equals("")) {
             throw  new RuntimeException("Dados invalidos");
         } else {
-            return timeRepository.save(time);
+            Time salvo = timeRepository.save(time);
+            invalidarCache(salvo);
+            return salvo;
         }
     }
 
@@ -32,11 +54,45 @@ public class TimeService {
     }
 
     public Time getTime(Integer id) {
-        Optional<Time> op = timeRepository.findById(id);
-        if (op.isPresent()) {
-            return op.get();
+        Time time = timesPorId.get(id, key -> timeRepository.findById(key).orElse(null));
+        if (time != null) {
+            return time;
         }
         throw new TimeNaoEncontradoException("Time " + id + " não encontrado");
     }
 
-}
\ No newline at end of file
+    public Map<Integer, Time> getTimes(Collection<Integer> ids) {
+        return timesPorId.getAll(ids, faltando -> {
+            Map<Integer, Time> encontrados = new HashMap<>();
+            for (Time time : timeRepository.findAllById(new ArrayList<>(faltando))) {
+                encontrados.put(time.getId(), time);
+            }
+            return encontrados;
+        });
+    }
+
+    public Time getTimePorIdentificador(String identificador) {
+        Time time = timesPorIdentificador.get(identificador,
+                key -> timeRepository.findByIdentificador(key).orElse(null));
+        if (time != null) {
+            return time;
+        }
+        throw new TimeNaoEncontradoException("Time " + identificador + " não encontrado");
+    }
+
+    private void invalidarCache(Time time) {
+        Time anterior = timesPorId.getIfPresent(time.getId());
+        if (anterior != null) {
+            timesPorIdentificador.invalidate(anterior.getIdentificador());
+        }
+        timesPorId.invalidate(time.getId());
+        timesPorIdentificador.invalidate(time.getIdentificador());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, timesPorId, "times.id");
+        CaffeineCacheMetrics.monitor(registry, timesPorIdentificador, "times.identificador");
+    }
+
+}
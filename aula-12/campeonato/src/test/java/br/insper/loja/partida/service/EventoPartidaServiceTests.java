@@ -0,0 +1,128 @@
+package br.insper.loja.partida.service;
+
+import br.insper.loja.partida.model.EventoPartida;
+import br.insper.loja.partida.repository.EventoPartidaRepository;
+import br.insper.partida.contrato.PartidaEvento;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@ExtendWith(MockitoExtension.class)
+public class EventoPartidaServiceTests {
+
+    @InjectMocks
+    private EventoPartidaService eventoPartidaService;
+
+    @Mock
+    private EventoPartidaRepository eventoPartidaRepository;
+
+    @Mock
+    private KafkaTemplate<String, PartidaEvento> kafkaTemplate;
+
+    @Mock
+    private SendResult<String, PartidaEvento> sendResult;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(eventoPartidaService, "tamanhoLote", 10);
+        ReflectionTestUtils.setField(eventoPartidaService, "timeoutEnvio", 1000L);
+    }
+
+    @Test
+    public void testPublicarPendentesDeletesSentEvents() {
+
+        Mockito.when(eventoPartidaRepository.findAllByFalhaIsNullOrderByIdAsc(Limit.of(10)))
+                .thenReturn(List.of(getEvento(1L, 10), getEvento(2L, 11)))
+                .thenReturn(new ArrayList<>());
+        Mockito.when(kafkaTemplate.send(Mockito.eq("partidas"), Mockito.anyString(), Mockito.any(PartidaEvento.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        eventoPartidaService.publicarPendentes();
+
+        Mockito.verify(kafkaTemplate).send(Mockito.eq("partidas"), Mockito.eq("10"), Mockito.any(PartidaEvento.class));
+        Mockito.verify(kafkaTemplate).send(Mockito.eq("partidas"), Mockito.eq("11"), Mockito.any(PartidaEvento.class));
+        Mockito.verify(kafkaTemplate, Mockito.times(1)).flush();
+        Mockito.verify(eventoPartidaRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    public void testPublicarPendentesStopsAtFirstFailure() {
+
+        Mockito.when(eventoPartidaRepository.findAllByFalhaIsNullOrderByIdAsc(Limit.of(10)))
+                .thenReturn(List.of(getEvento(1L, 10), getEvento(2L, 11), getEvento(3L, 10)));
+        Mockito.when(kafkaTemplate.send(Mockito.eq("partidas"), Mockito.anyString(), Mockito.any(PartidaEvento.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResult))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker indisponivel")))
+                .thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        eventoPartidaService.publicarPendentes();
+
+        Mockito.verify(eventoPartidaRepository).deleteAllByIdInBatch(List.of(1L));
+        Mockito.verify(eventoPartidaRepository, Mockito.times(1)).findAllByFalhaIsNullOrderByIdAsc(Limit.of(10));
+    }
+
+    @Test
+    public void testPublicarPendentesSeparaEventoIlegivelESegue() {
+
+        EventoPartida ilegivel = getEvento(2L, 11);
+        ilegivel.setPayload("nao e json");
+        Mockito.when(eventoPartidaRepository.findAllByFalhaIsNullOrderByIdAsc(Limit.of(10)))
+                .thenReturn(List.of(getEvento(1L, 10), ilegivel, getEvento(3L, 12)))
+                .thenReturn(new ArrayList<>());
+        Mockito.when(kafkaTemplate.send(Mockito.eq("partidas"), Mockito.anyString(), Mockito.any(PartidaEvento.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        eventoPartidaService.publicarPendentes();
+
+        Mockito.verify(kafkaTemplate, Mockito.never())
+                .send(Mockito.eq("partidas"), Mockito.eq("11"), Mockito.any(PartidaEvento.class));
+        Mockito.verify(eventoPartidaRepository).save(Mockito.argThat(evento ->
+                evento.getId() == 2L && evento.getFalha() != null));
+        Mockito.verify(eventoPartidaRepository).deleteAllByIdInBatch(List.of(1L, 3L));
+    }
+
+    @Test
+    public void testPublicarPendentesParaNoEnvioQueFalhaNaHora() {
+
+        Mockito.when(eventoPartidaRepository.findAllByFalhaIsNullOrderByIdAsc(Limit.of(10)))
+                .thenReturn(List.of(getEvento(1L, 10), getEvento(2L, 11), getEvento(3L, 12)));
+        Mockito.when(kafkaTemplate.send(Mockito.eq("partidas"), Mockito.anyString(), Mockito.any(PartidaEvento.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResult))
+                .thenThrow(new KafkaException("buffer do producer cheio"));
+
+        eventoPartidaService.publicarPendentes();
+
+        Mockito.verify(kafkaTemplate, Mockito.times(2))
+                .send(Mockito.eq("partidas"), Mockito.anyString(), Mockito.any(PartidaEvento.class));
+        Mockito.verify(eventoPartidaRepository, Mockito.never()).save(Mockito.any());
+        Mockito.verify(eventoPartidaRepository).deleteAllByIdInBatch(List.of(1L));
+        Mockito.verify(eventoPartidaRepository, Mockito.times(1)).findAllByFalhaIsNullOrderByIdAsc(Limit.of(10));
+    }
+
+    private EventoPartida getEvento(Long id, Integer idPartida) {
+        EventoPartida evento = new EventoPartida();
+        evento.setId(id);
+        evento.setIdPartida(idPartida);
+        evento.setPayload("{\"id\":" + idPartida + ",\"status\":\"REALIZADA\"}");
+        return evento;
+    }
+
+}
@@ -0,0 +1,118 @@
+package br.insper.loja.partida.service;
+
+import br.insper.loja.partida.model.Partida;
+import br.insper.loja.partida.repository.ContadorAlteracaoRepository;
+import br.insper.loja.partida.repository.PartidaRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// sem a transacao do teste: a inicializacao abre e comita as suas, como na subida
+@DataJpaTest
+@Import(InicializacaoPartidaService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class InicializacaoPartidaServiceTests {
+
+    @Autowired
+    private InicializacaoPartidaService inicializacaoPartidaService;
+
+    @Autowired
+    private ContadorAlteracaoRepository contadorAlteracaoRepository;
+
+    @Autowired
+    private PartidaRepository partidaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.update("delete from partida");
+        jdbcTemplate.update("delete from contador_alteracao");
+    }
+
+    @Test
+    public void testInicializarCriaContador() {
+        inicializacaoPartidaService.inicializar();
+
+        Assertions.assertEquals(0L, contadorAlteracaoRepository
+                .findById(PartidaService.CONTADOR_ALTERACAO).orElseThrow().getValor());
+    }
+
+    @Test
+    public void testInicializarNumeraPartidasAntigasNaOrdemDoIdDepoisDoContador() {
+        jdbcTemplate.update("insert into contador_alteracao (id, valor) values (?, 7)",
+                PartidaService.CONTADOR_ALTERACAO);
+        jdbcTemplate.update("insert into partida (id, status, alteracao) values (9, 'AGENDADA', null)");
+        jdbcTemplate.update("insert into partida (id, status, alteracao) values (3, 'AGENDADA', null)");
+        jdbcTemplate.update("insert into partida (id, status, alteracao) values (5, 'AGENDADA', 7)");
+        jdbcTemplate.update("insert into partida (id, status, alteracao) values (4, 'AGENDADA', null)");
+
+        inicializacaoPartidaService.inicializar();
+
+        Assertions.assertEquals(List.of(3, 4, 9), jdbcTemplate.queryForList(
+                "select id from partida where alteracao > 7 order by alteracao", Integer.class));
+        Assertions.assertEquals(List.of(8L, 9L, 10L), jdbcTemplate.queryForList(
+                "select alteracao from partida where alteracao > 7 order by alteracao", Long.class));
+        Assertions.assertEquals(10L, contadorAlteracaoRepository
+                .findById(PartidaService.CONTADOR_ALTERACAO).orElseThrow().getValor());
+
+        // rodar de novo nao renumera nada
+        inicializacaoPartidaService.inicializar();
+
+        Assertions.assertEquals(10L, contadorAlteracaoRepository
+                .findById(PartidaService.CONTADOR_ALTERACAO).orElseThrow().getValor());
+        Assertions.assertEquals(9L, jdbcTemplate.queryForObject(
+                "select alteracao from partida where id = 4", Long.class));
+    }
+
+    @Test
+    public void testInicializarAvancaSequenciaAlemDosIdsExistentes() {
+        // partidas gravadas quando o id ainda era identity
+        jdbcTemplate.update("insert into partida (id, status) values (1000, 'AGENDADA')");
+        jdbcTemplate.execute("alter sequence partida_seq restart with 1");
+
+        inicializacaoPartidaService.inicializar();
+
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            Partida partida = new Partida();
+            partida.setStatus("AGENDADA");
+            ids.add(partidaRepository.save(partida).getId());
+        }
+        Assertions.assertTrue(ids.stream().allMatch(id -> id > 1000), ids.toString());
+    }
+
+    @Test
+    public void testInicializarNaoVoltaSequencia() {
+        jdbcTemplate.update("insert into partida (id, status) values (10, 'AGENDADA')");
+        jdbcTemplate.execute("alter sequence partida_seq restart with 5000");
+
+        inicializacaoPartidaService.inicializar();
+
+        Assertions.assertEquals(5000L, jdbcTemplate.queryForObject(
+                "select base_value from information_schema.sequences where sequence_name = 'PARTIDA_SEQ'",
+                Long.class));
+    }
+
+    @Test
+    public void testInicializarIniciaVersoesNulasEmZero() {
+        jdbcTemplate.update("insert into partida (id, status, versao) values (1, 'AGENDADA', null)");
+        jdbcTemplate.update("insert into partida (id, status, versao) values (2, 'REALIZADA', 3)");
+
+        inicializacaoPartidaService.inicializar();
+
+        Assertions.assertEquals(List.of(0L, 3L), jdbcTemplate.queryForList(
+                "select versao from partida order by id", Long.class));
+    }
+
+}
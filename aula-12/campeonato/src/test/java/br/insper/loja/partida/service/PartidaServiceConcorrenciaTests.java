@@ -0,0 +1,117 @@
+package br.insper.loja.partida.service;
+
+import br.insper.loja.partida.dto.EditarPartidaDTO;
+import br.insper.loja.partida.model.EventoPartida;
+import br.insper.loja.partida.model.Partida;
+import br.insper.loja.partida.repository.EventoPartidaRepository;
+import br.insper.loja.partida.repository.PartidaRepository;
+import br.insper.loja.time.model.Time;
+import br.insper.loja.time.repository.TimeRepository;
+import br.insper.loja.time.service.TimeService;
+import br.insper.partida.contrato.PartidaEvento;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// sem a transacao do teste: cada edicao comita na sua, como duas requisicoes
+@DataJpaTest
+@Import({PartidaService.class, TimeService.class, EventoPartidaService.class, InicializacaoPartidaService.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PartidaServiceConcorrenciaTests {
+
+    @Autowired
+    private PartidaService partidaService;
+
+    @Autowired
+    private PartidaRepository partidaRepository;
+
+    @Autowired
+    private TimeRepository timeRepository;
+
+    @Autowired
+    private EventoPartidaRepository eventoPartidaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private KafkaTemplate<String, PartidaEvento> kafkaTemplate;
+
+    private Integer idPartida;
+
+    @BeforeEach
+    public void setUp() {
+        eventoPartidaRepository.deleteAll();
+        partidaRepository.deleteAll();
+        timeRepository.deleteAll();
+
+        Time mandante = timeRepository.save(new Time("Time 0", "time-0", "Estadio 0", "SP"));
+        Time visitante = timeRepository.save(new Time("Time 1", "time-1", "Estadio 1", "SP"));
+        Partida partida = new Partida();
+        partida.setMandante(mandante);
+        partida.setVisitante(visitante);
+        partida.setStatus("AGENDADA");
+        idPartida = partidaRepository.save(partida).getId();
+    }
+
+    @Test
+    public void testEdicoesConcorrentesNaoPublicamAMesmaVersao() throws Exception {
+        EditarPartidaDTO primeira = new EditarPartidaDTO();
+        primeira.setPlacarMandante(1);
+        primeira.setPlacarVisitante(0);
+        EditarPartidaDTO segunda = new EditarPartidaDTO();
+        segunda.setPlacarMandante(2);
+        segunda.setPlacarVisitante(0);
+
+        // a primeira requisicao le a partida na versao 0; enquanto isso a
+        // segunda, em outra thread, edita e comita a versao 1
+        Assertions.assertThrows(OptimisticLockingFailureException.class, () ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    Assertions.assertEquals(0L, partidaRepository.findById(idPartida).orElseThrow().getVersao());
+
+                    Thread outra = Thread.ofVirtual().start(() -> partidaService.editarPartida(segunda, idPartida));
+                    try {
+                        outra.join();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+
+                    partidaService.editarPartida(primeira, idPartida);
+                }));
+
+        Partida partida = partidaRepository.findById(idPartida).orElseThrow();
+        Assertions.assertEquals(1L, partida.getVersao());
+        Assertions.assertEquals(2, partida.getPlacarMandante());
+
+        // so a edicao que comitou deixou evento, e com a versao que gravou
+        List<EventoPartida> eventos = eventoPartidaRepository.findAll();
+        Assertions.assertEquals(1, eventos.size());
+        PartidaEvento evento = objectMapper.readValue(eventos.getFirst().getPayload(), PartidaEvento.class);
+        Assertions.assertEquals(1L, evento.getVersao());
+        Assertions.assertEquals(2, evento.getPlacarMandante());
+
+        // quem perdeu tenta de novo e sai com a versao seguinte
+        partidaService.editarPartida(primeira, idPartida);
+
+        Assertions.assertEquals(2L, partidaRepository.findById(idPartida).orElseThrow().getVersao());
+    }
+
+}
@@ -0,0 +1,222 @@
+package br.insper.loja.partida.service;
+
+import br.insper.loja.partida.dto.AlteracaoPartidaDTO;
+import br.insper.loja.partida.dto.EditarLotePartidaDTO;
+import br.insper.loja.partida.dto.EditarPartidaDTO;
+import br.insper.loja.partida.dto.ItemLotePartidaDTO;
+import br.insper.loja.partida.dto.RetornarPartidaDTO;
+import br.insper.loja.partida.dto.SalvarPartidaDTO;
+import br.insper.loja.partida.model.ContadorAlteracao;
+import br.insper.loja.partida.model.EventoPartida;
+import br.insper.loja.partida.model.Partida;
+import br.insper.loja.partida.repository.EventoPartidaRepository;
+import br.insper.loja.time.model.Time;
+import br.insper.loja.time.service.TimeService;
+import br.insper.partida.contrato.PartidaEvento;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({PartidaService.class, TimeService.class, EventoPartidaService.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class PartidaServiceSqlTests {
+
+    @Autowired
+    private PartidaService partidaService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EventoPartidaRepository eventoPartidaRepository;
+
+    @MockBean
+    private KafkaTemplate<String, PartidaEvento> kafkaTemplate;
+
+    private Statistics statistics;
+
+    private Integer idPartida;
+
+    private Integer idTime;
+
+    @BeforeEach
+    public void setUp() {
+        Time[] times = new Time[4];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = entityManager.persist(new Time("Time " + i, "time-" + i, "Estadio " + i, "SP"));
+        }
+        idTime = times[0].getId();
+        for (int i = 0; i < times.length; i++) {
+            Partida partida = new Partida();
+            partida.setMandante(times[i]);
+            partida.setVisitante(times[(i + 1) % times.length]);
+            partida.setStatus("AGENDADA");
+            idPartida = entityManager.persist(partida).getId();
+        }
+        entityManager.persist(new ContadorAlteracao(PartidaService.CONTADOR_ALTERACAO, 0L));
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void testListarPartidasUsesOneStatement() {
+
+        List<RetornarPartidaDTO> partidas = partidaService.listarPartidas(null, null, null, null, 100);
+
+        Assertions.assertEquals(4, partidas.size());
+        Assertions.assertEquals("Time 0", partidas.getFirst().getNomeMandante());
+        Assertions.assertEquals("Time 1", partidas.getFirst().getNomeVisitante());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testListarPartidasComMandanteUsesOneStatement() {
+
+        List<RetornarPartidaDTO> partidas = partidaService.listarPartidas("time-2", null, null, null, 100);
+
+        Assertions.assertEquals(1, partidas.size());
+        Assertions.assertEquals("Time 3", partidas.getFirst().getNomeVisitante());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testGetPartidaUsesOneStatement() {
+
+        RetornarPartidaDTO partida = partidaService.getPartida(idPartida);
+
+        Assertions.assertEquals("Time 3", partida.getNomeMandante());
+        Assertions.assertEquals("Time 0", partida.getNomeVisitante());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testCadastrarPartidasBatchesInserts() {
+
+        List<SalvarPartidaDTO> lote = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            SalvarPartidaDTO dto = new SalvarPartidaDTO();
+            dto.setMandante(idTime);
+            dto.setVisitante(idTime + 1);
+            lote.add(dto);
+        }
+        SalvarPartidaDTO invalida = new SalvarPartidaDTO();
+        invalida.setMandante(idTime);
+        invalida.setVisitante(-1);
+        lote.add(invalida);
+
+        List<ItemLotePartidaDTO> itens = partidaService.cadastrarPartidas(lote);
+        entityManager.flush();
+
+        Assertions.assertEquals(41, itens.size());
+        Assertions.assertNotNull(itens.getFirst().getPartida().getId());
+        Assertions.assertEquals("Time -1 não encontrado", itens.getLast().getErro());
+        Assertions.assertNull(itens.getLast().getPartida());
+        // select dos times, no maximo um proximo valor da sequence, um insert em
+        // batch e o contador de alteracao (select for update e update)
+        Assertions.assertEquals(40, statistics.getEntityInsertCount());
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= 5);
+        Assertions.assertEquals(44, partidaService.listarPartidas(null, null, null, null, 100).size());
+    }
+
+    @Test
+    public void testEditarPartidasBatchesUpdates() {
+
+        List<EditarLotePartidaDTO> lote = new ArrayList<>();
+        for (RetornarPartidaDTO partida : partidaService.listarPartidas(null, null, null, null, 100)) {
+            EditarLotePartidaDTO dto = new EditarLotePartidaDTO();
+            dto.setId(partida.getId());
+            dto.setPlacarMandante(2);
+            dto.setPlacarVisitante(1);
+            lote.add(dto);
+        }
+        statistics.clear();
+
+        List<ItemLotePartidaDTO> itens = partidaService.editarPartidas(lote);
+        entityManager.flush();
+
+        Assertions.assertEquals(4, itens.size());
+        Assertions.assertEquals("REALIZADA", itens.getFirst().getPartida().getStatus());
+        // select com join fetch dos times, contador de alteracao, update em batch,
+        // sequence e insert em batch do outbox; os updates sao as 4 partidas e o contador
+        Assertions.assertEquals(5, statistics.getEntityUpdateCount());
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= 6);
+        Assertions.assertEquals(4, eventoPartidaRepository.count());
+    }
+
+    @Test
+    public void testEditarPartidaWritesOutboxInSameTransaction() {
+
+        EditarPartidaDTO dto = new EditarPartidaDTO();
+        dto.setPlacarMandante(0);
+        dto.setPlacarVisitante(3);
+
+        partidaService.editarPartida(dto, idPartida);
+        entityManager.flush();
+
+        List<EventoPartida> eventos = eventoPartidaRepository.findAll();
+        Assertions.assertEquals(1, eventos.size());
+        Assertions.assertEquals(idPartida, eventos.getFirst().getIdPartida());
+        Assertions.assertTrue(eventos.getFirst().getPayload().contains("\"placarVisitante\":3"));
+        Mockito.verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    public void testListarAlteracoesDevolveSoOQueMudouDepoisDaMarca() {
+
+        List<EditarLotePartidaDTO> lote = new ArrayList<>();
+        for (RetornarPartidaDTO partida : partidaService.listarPartidas(null, null, null, null, 2)) {
+            EditarLotePartidaDTO dto = new EditarLotePartidaDTO();
+            dto.setId(partida.getId());
+            dto.setPlacarMandante(1);
+            dto.setPlacarVisitante(0);
+            lote.add(dto);
+        }
+        partidaService.editarPartidas(lote);
+        EditarPartidaDTO correcao = new EditarPartidaDTO();
+        correcao.setPlacarMandante(0);
+        correcao.setPlacarVisitante(0);
+        partidaService.editarPartida(correcao, lote.getFirst().getId());
+        entityManager.flush();
+        statistics.clear();
+
+        List<AlteracaoPartidaDTO> alteracoes = partidaService.listarAlteracoes(0L, 100);
+
+        // a primeira partida foi alterada de novo: aparece uma vez, com a alteracao mais nova
+        Assertions.assertEquals(List.of(lote.get(1).getId(), lote.getFirst().getId()),
+                alteracoes.stream().map(AlteracaoPartidaDTO::getId).toList());
+        Assertions.assertTrue(alteracoes.get(0).getAlteracao() < alteracoes.get(1).getAlteracao());
+        Assertions.assertEquals(0, alteracoes.get(1).getPlacarMandante());
+        // a versao e a do evento no topico: uma edicao no lote e uma correcao depois
+        Assertions.assertEquals(1L, alteracoes.get(0).getVersao());
+        Assertions.assertEquals(2L, alteracoes.get(1).getVersao());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+
+        Assertions.assertEquals(List.of(lote.getFirst().getId()),
+                partidaService.listarAlteracoes(alteracoes.getFirst().getAlteracao(), 100).stream()
+                        .map(AlteracaoPartidaDTO::getId).toList());
+        Assertions.assertTrue(partidaService.listarAlteracoes(alteracoes.get(1).getAlteracao(), 100).isEmpty());
+    }
+
+}
@@ -0,0 +1,155 @@
+package br.insper.loja.partida.service;
+
+import br.insper.loja.partida.dto.EditarLotePartidaDTO;
+import br.insper.loja.partida.dto.ItemLotePartidaDTO;
+import br.insper.loja.partida.dto.RetornarPartidaDTO;
+import br.insper.loja.partida.exception.PartidaNaoEncontradaException;
+import br.insper.loja.partida.model.ContadorAlteracao;
+import br.insper.loja.partida.model.Partida;
+import br.insper.loja.partida.repository.ContadorAlteracaoRepository;
+import br.insper.loja.partida.repository.PartidaRepository;
+import br.insper.loja.time.model.Time;
+import br.insper.loja.time.service.TimeService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+public class PartidaServiceTests {
+
+    @InjectMocks
+    private PartidaService partidaService;
+
+    @Mock
+    private PartidaRepository partidaRepository;
+
+    @Mock
+    private ContadorAlteracaoRepository contadorAlteracaoRepository;
+
+    @Mock
+    private TimeService timeService;
+
+    @Mock
+    private EventoPartidaService eventoPartidaService;
+
+    @Test
+    public void testListarPartidasSemFiltros() {
+
+        List<RetornarPartidaDTO> partidas = new ArrayList<>();
+        partidas.add(new RetornarPartidaDTO(1, "Time Mandante", "Time Visitante", null, null, "AGENDADA"));
+
+        Mockito.when(partidaRepository.listarPartidas(null, null, null, 0, Limit.of(100)))
+                .thenReturn(partidas);
+
+        List<RetornarPartidaDTO> result = partidaService.listarPartidas(null, null, null, null, 100);
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals("Time Mandante", result.getFirst().getNomeMandante());
+        Assertions.assertEquals("Time Visitante", result.getFirst().getNomeVisitante());
+    }
+
+    @Test
+    public void testListarPartidasComMandanteEAfter() {
+
+        Mockito.when(partidaRepository.listarPartidas("time-1", null, "REALIZADA", 10, Limit.of(5)))
+                .thenReturn(List.of(new RetornarPartidaDTO(11, "Time 1", "Time 2", 1, 0, "REALIZADA")));
+
+        List<RetornarPartidaDTO> result = partidaService.listarPartidas("time-1", null, "REALIZADA", 10, 5);
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(11, result.getFirst().getId());
+    }
+
+    @Test
+    public void testListarPartidasLimiteAcimaDoMaximo() {
+
+        Mockito.when(partidaRepository.listarPartidas(null, null, null, 0, Limit.of(PartidaService.LIMITE_MAXIMO)))
+                .thenReturn(new ArrayList<>());
+
+        List<RetornarPartidaDTO> result = partidaService.listarPartidas(null, null, null, null, 50000);
+
+        Assertions.assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void testListarPartidasLimiteZeroOuNegativoDevolveUmaPartida() {
+
+        Mockito.when(partidaRepository.listarPartidas(null, null, null, 0, Limit.of(1)))
+                .thenReturn(new ArrayList<>());
+
+        partidaService.listarPartidas(null, null, null, null, 0);
+        partidaService.listarPartidas(null, null, null, null, -5);
+
+        Mockito.verify(partidaRepository, Mockito.times(2)).listarPartidas(null, null, null, 0, Limit.of(1));
+    }
+
+    @Test
+    public void testListarAlteracoesLimiteZeroOuNegativoDevolveUmaAlteracao() {
+
+        Mockito.when(partidaRepository.listarAlteracoes(0L, Limit.of(1))).thenReturn(new ArrayList<>());
+
+        partidaService.listarAlteracoes(null, 0);
+        partidaService.listarAlteracoes(null, -5);
+
+        Mockito.verify(partidaRepository, Mockito.times(2)).listarAlteracoes(0L, Limit.of(1));
+    }
+
+    @Test
+    public void testGetPartidaWhenPartidaIsNull() {
+
+        Mockito.when(partidaRepository.buscarPartida(1)).thenReturn(Optional.empty());
+
+        Assertions.assertThrows(PartidaNaoEncontradaException.class,
+                () -> partidaService.getPartida(1));
+    }
+
+    @Test
+    public void testEditarPartidasRegistersEvents() {
+
+        Time mandante = new Time();
+        mandante.setNome("Time 1");
+        Time visitante = new Time();
+        visitante.setNome("Time 2");
+
+        Partida partida = new Partida();
+        partida.setId(1);
+        partida.setMandante(mandante);
+        partida.setVisitante(visitante);
+        partida.setVersao(2L);
+
+        EditarLotePartidaDTO encontrada = new EditarLotePartidaDTO();
+        encontrada.setId(1);
+        encontrada.setPlacarMandante(1);
+        encontrada.setPlacarVisitante(1);
+        EditarLotePartidaDTO naoEncontrada = new EditarLotePartidaDTO();
+        naoEncontrada.setId(2);
+
+        Mockito.when(partidaRepository.buscarPartidas(Mockito.anyCollection())).thenReturn(List.of(partida));
+        ContadorAlteracao contador = new ContadorAlteracao(PartidaService.CONTADOR_ALTERACAO, 41L);
+        Mockito.when(contadorAlteracaoRepository.travar(PartidaService.CONTADOR_ALTERACAO))
+                .thenReturn(Optional.of(contador));
+
+        List<ItemLotePartidaDTO> itens = partidaService.editarPartidas(List.of(encontrada, naoEncontrada));
+
+        Assertions.assertEquals("REALIZADA", itens.get(0).getPartida().getStatus());
+        Assertions.assertEquals("Partida 2 não encontrada", itens.get(1).getErro());
+        Assertions.assertEquals(42L, partida.getAlteracao());
+        Assertions.assertEquals(42L, contador.getValor());
+        // o evento so e montado depois do flush, que e quando o hibernate incrementa a versao
+        InOrder ordem = Mockito.inOrder(partidaRepository, eventoPartidaService);
+        ordem.verify(partidaRepository).flush();
+        ordem.verify(eventoPartidaService, Mockito.times(1))
+                .registrar(Mockito.argThat(eventos -> eventos.size() == 1 && eventos.getFirst().getId() == 1));
+    }
+
+}
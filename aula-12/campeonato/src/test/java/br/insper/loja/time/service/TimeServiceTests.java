@@ -87,5 +87,62 @@ public class TimeServiceTests {
 
     }
 
+    @Test
+    public void testGetTimeUsesCache() {
+
+        Time time = new Time();
+        time.setId(1);
+        time.setIdentificador("time-1");
+
+        Mockito.when(timeRepository.findById(1)).thenReturn(Optional.of(time));
+
+        timeService.getTime(1);
+        Time timeRetorno = timeService.getTime(1);
+
+        Assertions.assertEquals("time-1", timeRetorno.getIdentificador());
+        Mockito.verify(timeRepository, Mockito.times(1)).findById(1);
+    }
+
+    @Test
+    public void testGetTimePorIdentificadorUsesCache() {
+
+        Time time = new Time();
+        time.setId(1);
+        time.setIdentificador("time-1");
+
+        Mockito.when(timeRepository.findByIdentificador("time-1")).thenReturn(Optional.of(time));
+
+        timeService.getTimePorIdentificador("time-1");
+        Time timeRetorno = timeService.getTimePorIdentificador("time-1");
+
+        Assertions.assertEquals(1, timeRetorno.getId());
+        Mockito.verify(timeRepository, Mockito.times(1)).findByIdentificador("time-1");
+    }
+
+    @Test
+    public void testCadastrarTimeInvalidatesCache() {
+
+        Time time = new Time();
+        time.setId(1);
+        time.setNome("Time 1");
+        time.setIdentificador("time-1");
+
+        Time alterado = new Time();
+        alterado.setId(1);
+        alterado.setNome("Time 1 Alterado");
+        alterado.setIdentificador("time-1");
+
+        Mockito.when(timeRepository.findById(1))
+                .thenReturn(Optional.of(time))
+                .thenReturn(Optional.of(alterado));
+        Mockito.when(timeRepository.save(alterado)).thenReturn(alterado);
+
+        timeService.getTime(1);
+        timeService.cadastrarTime(alterado);
+        Time timeRetorno = timeService.getTime(1);
+
+        Assertions.assertEquals("Time 1 Alterado", timeRetorno.getNome());
+        Mockito.verify(timeRepository, Mockito.times(2)).findById(1);
+    }
 
 }
@@ -0,0 +1,85 @@
+package br.insper.partida.contrato;
+
+public class PartidaEvento {
+    private Integer id;
+    private Integer idMandante;
+    private Integer idVisitante;
+    private String nomeMandante;
+    private String nomeVisitante;
+    private Integer placarMandante;
+    private Integer placarVisitante;
+    private String status;
+    private Long versao;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Integer getIdMandante() {
+        return idMandante;
+    }
+
+    public void setIdMandante(Integer idMandante) {
+        this.idMandante = idMandante;
+    }
+
+    public Integer getIdVisitante() {
+        return idVisitante;
+    }
+
+    public void setIdVisitante(Integer idVisitante) {
+        this.idVisitante = idVisitante;
+    }
+
+    public String getNomeMandante() {
+        return nomeMandante;
+    }
+
+    public void setNomeMandante(String nomeMandante) {
+        this.nomeMandante = nomeMandante;
+    }
+
+    public String getNomeVisitante() {
+        return nomeVisitante;
+    }
+
+    public void setNomeVisitante(String nomeVisitante) {
+        this.nomeVisitante = nomeVisitante;
+    }
+
+    public Integer getPlacarMandante() {
+        return placarMandante;
+    }
+
+    public void setPlacarMandante(Integer placarMandante) {
+        this.placarMandante = placarMandante;
+    }
+
+    public Integer getPlacarVisitante() {
+        return placarVisitante;
+    }
+
+    public void setPlacarVisitante(Integer placarVisitante) {
+        this.placarVisitante = placarVisitante;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+}
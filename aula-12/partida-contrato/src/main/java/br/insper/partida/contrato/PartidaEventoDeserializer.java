@@ -0,0 +1,19 @@
+package br.insper.partida.contrato;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+public class PartidaEventoDeserializer implements Deserializer<PartidaEvento> {
+
+    @Override
+    public PartidaEvento deserialize(String topic, byte[] dados) {
+        if (dados == null) {
+            return null;
+        }
+        try {
+            return PartidaEventoCodec.decode(dados);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Erro ao ler evento do topico " + topic, e);
+        }
+    }
+}
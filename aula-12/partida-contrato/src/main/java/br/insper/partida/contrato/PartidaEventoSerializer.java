@@ -0,0 +1,14 @@
+package br.insper.partida.contrato;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+public class PartidaEventoSerializer implements Serializer<PartidaEvento> {
+
+    @Override
+    public byte[] serialize(String topic, PartidaEvento evento) {
+        if (evento == null) {
+            return null;
+        }
+        return PartidaEventoCodec.encode(evento);
+    }
+}
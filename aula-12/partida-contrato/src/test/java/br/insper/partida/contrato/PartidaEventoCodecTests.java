@@ -0,0 +1,121 @@
+package br.insper.partida.contrato;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PartidaEventoCodecTests {
+
+    @Test
+    public void testEncodeDecodeRealizada() {
+
+        PartidaEvento evento = getEvento();
+
+        PartidaEvento retorno = PartidaEventoCodec.decode(PartidaEventoCodec.encode(evento));
+
+        Assertions.assertEquals(123456, retorno.getId());
+        Assertions.assertEquals(7, retorno.getIdMandante());
+        Assertions.assertEquals(12, retorno.getIdVisitante());
+        Assertions.assertEquals("São Paulo", retorno.getNomeMandante());
+        Assertions.assertEquals("Palmeiras", retorno.getNomeVisitante());
+        Assertions.assertEquals(3, retorno.getPlacarMandante());
+        Assertions.assertEquals(0, retorno.getPlacarVisitante());
+        Assertions.assertEquals("REALIZADA", retorno.getStatus());
+        Assertions.assertEquals(5_000_000_000L, retorno.getVersao());
+    }
+
+    @Test
+    public void testEncodeDecodeCamposNulosEStatusDesconhecido() {
+
+        PartidaEvento evento = new PartidaEvento();
+        evento.setId(-1);
+        evento.setStatus("ADIADA");
+
+        PartidaEvento retorno = PartidaEventoCodec.decode(PartidaEventoCodec.encode(evento));
+
+        Assertions.assertEquals(-1, retorno.getId());
+        Assertions.assertEquals("ADIADA", retorno.getStatus());
+        Assertions.assertNull(retorno.getNomeMandante());
+        Assertions.assertNull(retorno.getPlacarMandante());
+    }
+
+    @Test
+    public void testDecodeVersao1() {
+
+        // MAGICO, versao 1, mascara em um byte com id e status, id 5 e status REALIZADA
+        byte[] dados = {0x50, 1, (byte) 0x81, 10, 1};
+
+        PartidaEvento retorno = PartidaEventoCodec.decode(dados);
+
+        Assertions.assertEquals(5, retorno.getId());
+        Assertions.assertEquals("REALIZADA", retorno.getStatus());
+        Assertions.assertNull(retorno.getVersao());
+    }
+
+    @Test
+    public void testDecodeVersaoNaoSuportada() {
+
+        byte[] dados = PartidaEventoCodec.encode(getEvento());
+        dados[1] = 99;
+
+        Assertions.assertThrows(SerializationException.class,
+                () -> new PartidaEventoDeserializer().deserialize("partidas", dados));
+    }
+
+    @Test
+    public void testDecodeMensagemTruncada() {
+
+        byte[] dados = PartidaEventoCodec.encode(getEvento());
+        byte[] truncados = java.util.Arrays.copyOf(dados, dados.length - 3);
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> PartidaEventoCodec.decode(truncados));
+    }
+
+    @Test
+    public void testDecodeStatusInvalido() {
+
+        // MAGICO, versao 2, mascara so com status, status -1 e status 3 (alem do codigo de string)
+        byte[] negativo = {0x50, 2, (byte) 0x80, 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F};
+        byte[] grande = {0x50, 2, (byte) 0x80, 1, 3};
+
+        Assertions.assertThrows(SerializationException.class,
+                () -> new PartidaEventoDeserializer().deserialize("partidas", negativo));
+        Assertions.assertThrows(SerializationException.class,
+                () -> new PartidaEventoDeserializer().deserialize("partidas", grande));
+    }
+
+    @Test
+    public void testDecodeJson() {
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> PartidaEventoCodec.decode("{\"id\":1}".getBytes()));
+    }
+
+    @Test
+    public void testBinarioMenorQueJson() throws Exception {
+
+        PartidaEvento evento = getEvento();
+
+        int binario = PartidaEventoCodec.encode(evento).length;
+        int json = new ObjectMapper().writeValueAsBytes(evento).length;
+
+        Assertions.assertTrue(binario * 3 < json, "binario=" + binario + " json=" + json);
+    }
+
+    static PartidaEvento getEvento() {
+        PartidaEvento evento = new PartidaEvento();
+        evento.setId(123456);
+        evento.setIdMandante(7);
+        evento.setIdVisitante(12);
+        evento.setNomeMandante("São Paulo");
+        evento.setNomeVisitante("Palmeiras");
+        evento.setPlacarMandante(3);
+        evento.setPlacarVisitante(0);
+        evento.setStatus("REALIZADA");
+        evento.setVersao(5_000_000_000L);
+        return evento;
+    }
+
+}
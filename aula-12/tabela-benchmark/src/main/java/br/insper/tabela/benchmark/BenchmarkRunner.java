@@ -0,0 +1,25 @@
+package br.insper.tabela.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// a partir de aula-12: mvn -pl tabela-benchmark -am install -DskipTests && mvn -pl tabela-benchmark exec:exec
+// os resultados ficam em target/jmh-result.json para comparar entre versoes
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions opcoes = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(opcoes);
+        if (opcoes.getIncludes().isEmpty()) {
+            builder.include("br\\.insper\\.tabela\\.benchmark\\..*");
+        }
+        if (!opcoes.getResult().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON).result("target/jmh-result.json");
+        }
+        new Runner(builder.build()).run();
+    }
+
+}
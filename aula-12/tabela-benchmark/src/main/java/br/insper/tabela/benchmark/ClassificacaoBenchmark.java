@@ -0,0 +1,172 @@
+package br.insper.tabela.benchmark;
+
+import br.insper.partida.contrato.PartidaEvento;
+import br.insper.tabela.tabela.ChaveClassificacao;
+import br.insper.tabela.tabela.TabelaDTO;
+import br.insper.tabela.tabela.TabelaMaterializada;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// ordenar a tabela inteira com o comparator sobre TabelaDTO (Integer boxed em
+// cada comparacao) contra ordenar as chaves long, e mudar um time de posicao
+// num array de chaves ou na TabelaMaterializada
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassificacaoBenchmark {
+
+    private static final Comparator<TabelaDTO> COMPARATOR = Comparator.comparing(TabelaDTO::getPontos)
+            .thenComparing(TabelaDTO::getVitorias)
+            .thenComparing(dto -> dto.getGolsPro() - dto.getGolsContra())
+            .thenComparing(TabelaDTO::getGolsPro)
+            .reversed();
+
+    @Param({"20", "2000"})
+    private int times;
+
+    private List<TabelaDTO> dtos;
+
+    private int[] pontos;
+
+    private int[] vitorias;
+
+    private int[] golsPro;
+
+    private int[] golsContra;
+
+    // na ordem dos dtos, para as duas ordenacoes partirem da mesma entrada
+    private long[] chavesDesordenadas;
+
+    // copia de trabalho, para cada ordenacao comecar da mesma ordem
+    private long[] ordenadas;
+
+    // tabela ja ordenada, mantida por reposicionar
+    private long[] chaves;
+
+    private TabelaMaterializada tabela;
+
+    private PartidaEvento vitoriaMandante;
+
+    private PartidaEvento vitoriaVisitante;
+
+    private int rodada;
+
+    private long versaoCorrecao = 1;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        dtos = new ArrayList<>();
+        pontos = new int[times];
+        vitorias = new int[times];
+        golsPro = new int[times];
+        golsContra = new int[times];
+        chavesDesordenadas = new long[times];
+        ordenadas = new long[times];
+        for (int i = 0; i < times; i++) {
+            vitorias[i] = random.nextInt(20);
+            pontos[i] = vitorias[i] * 3 + random.nextInt(10);
+            golsPro[i] = random.nextInt(60);
+            golsContra[i] = random.nextInt(60);
+            dtos.add(new TabelaDTO("Time " + i, pontos[i], vitorias[i], golsPro[i], golsContra[i]));
+            chavesDesordenadas[i] = getChave(i);
+        }
+        chaves = chavesDesordenadas.clone();
+        Arrays.sort(chaves);
+
+        // tabela com uma partida por time e uma partida que fica sendo corrigida
+        tabela = new TabelaMaterializada();
+        List<ConsumerRecord<String, PartidaEvento>> partidas = new ArrayList<>();
+        for (int i = 0; i < times; i++) {
+            partidas.add(new ConsumerRecord<>("partidas", 0, i, null,
+                    getPartida(i + 1, 1L, i + 1, (i + 1) % times + 1, i % 4, i % 3)));
+        }
+        tabela.registrar(partidas, Map.of(0, (long) times));
+        vitoriaMandante = getPartida(0, 1L, 1, 2, 2, 0);
+        vitoriaVisitante = getPartida(0, 1L, 1, 2, 0, 2);
+    }
+
+    @Benchmark
+    public List<TabelaDTO> ordenarComComparator() {
+        return dtos.stream().sorted(COMPARATOR).toList();
+    }
+
+    @Benchmark
+    public long[] ordenarChaves() {
+        System.arraycopy(chavesDesordenadas, 0, ordenadas, 0, times);
+        Arrays.sort(ordenadas);
+        return ordenadas;
+    }
+
+    // um time ganha 3 pontos e no proximo turno devolve, para a tabela nao andar
+    @Benchmark
+    public long[] reposicionarUmTimeNoArray() {
+        int time = (rodada >> 1) % times;
+        int sinal = (rodada & 1) == 0 ? 1 : -1;
+        rodada++;
+
+        long antiga = getChave(time);
+        pontos[time] += 3 * sinal;
+        vitorias[time] += sinal;
+        golsPro[time] += sinal;
+        reposicionar(chaves, antiga, getChave(time));
+        return chaves;
+    }
+
+    // a mesma partida corrigida de um lado para o outro: dois times mudam de posicao no skip list
+    @Benchmark
+    public Object reposicionarNaTabelaMaterializada() {
+        PartidaEvento partida = (rodada++ & 1) == 0 ? vitoriaMandante : vitoriaVisitante;
+        partida.setVersao(++versaoCorrecao);
+        return tabela.registrar(partida, 0, times + versaoCorrecao);
+    }
+
+    private long getChave(int time) {
+        return ChaveClassificacao.de(pontos[time], vitorias[time], golsPro[time] - golsContra[time],
+                golsPro[time], time);
+    }
+
+    // chaves em ordem crescente: tira a antiga e poe a nova deslocando so o
+    // trecho entre as duas posicoes
+    static void reposicionar(long[] chaves, long antiga, long nova) {
+        if (antiga == nova) {
+            return;
+        }
+        int de = Arrays.binarySearch(chaves, antiga);
+        int para = -Arrays.binarySearch(chaves, nova) - 1;
+        if (para > de) {
+            System.arraycopy(chaves, de + 1, chaves, de, para - 1 - de);
+            chaves[para - 1] = nova;
+        } else {
+            System.arraycopy(chaves, para, chaves, para + 1, de - para);
+            chaves[para] = nova;
+        }
+    }
+
+    private static PartidaEvento getPartida(int id, Long versao, int idMandante, int idVisitante,
+                                            int placarMandante, int placarVisitante) {
+        PartidaEvento partida = new PartidaEvento();
+        partida.setId(id);
+        partida.setVersao(versao);
+        partida.setIdMandante(idMandante);
+        partida.setNomeMandante("Time " + idMandante);
+        partida.setIdVisitante(idVisitante);
+        partida.setNomeVisitante("Time " + idVisitante);
+        partida.setPlacarMandante(placarMandante);
+        partida.setPlacarVisitante(placarVisitante);
+        partida.setStatus("REALIZADA");
+        return partida;
+    }
+
+}
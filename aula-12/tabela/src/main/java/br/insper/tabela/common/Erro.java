@@ -0,0 +1,34 @@
+package br.insper.tabela.common;
+
+import java.time.LocalDateTime;
+
+public class Erro {
+
+    private String mensagem;
+    private LocalDateTime data;
+    private Integer codigo;
+
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    public void setMensagem(String mensagem) {
+        this.mensagem = mensagem;
+    }
+
+    public LocalDateTime getData() {
+        return data;
+    }
+
+    public void setData(LocalDateTime data) {
+        this.data = data;
+    }
+
+    public Integer getCodigo() {
+        return codigo;
+    }
+
+    public void setCodigo(Integer codigo) {
+        this.codigo = codigo;
+    }
+}
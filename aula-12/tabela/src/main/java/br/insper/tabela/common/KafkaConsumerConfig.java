@@ -1,15 +1,21 @@
 package br.insper.tabela.common;
 
-import br.insper.loja.partida.dto.RetornarPartidaDTO;
+import br.insper.partida.contrato.PartidaEvento;
+import br.insper.partida.contrato.PartidaEventoDeserializer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.FailedDeserializationInfo;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -18,25 +24,56 @@ import java.util.Map;
 @Configuration
 public class KafkaConsumerConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(KafkaConsumerConfig.class);
+
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Value("${tabela.listener.max-poll-records:500}")
+    private int maxPollRecords;
+
+    // consumidores em paralelo; cada um fica com parte das particoes do topico
+    @Value("${tabela.listener.concurrency:1}")
+    private int concurrency;
+
     @Bean
-    public ConsumerFactory<String, RetornarPartidaDTO> consumerFactory() {
+    public ConsumerFactory<String, PartidaEvento> consumerFactory() {
         Map<String, Object> config = new HashMap<>();
 
-        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ConsumerConfig.GROUP_ID_CONFIG, "grupo_pedidos");
         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-        config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+
+        return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(), getValueDeserializer());
+    }
+
+    // o topico ainda tem os eventos em json de antes do codec, e eles nao tem
+    // os ids dos times nem a versao da partida para serem convertidos. Um
+    // registro que o codec nao le vira valor nulo, que o listener e a
+    // reconstrucao pulam; sem isso a excecao sairia de dentro do poll e o
+    // consumidor nunca passaria daquele offset
+    static Deserializer<PartidaEvento> getValueDeserializer() {
+        ErrorHandlingDeserializer<PartidaEvento> deserializer =
+                new ErrorHandlingDeserializer<>(new PartidaEventoDeserializer());
+        deserializer.setFailedDeserializationFunction(KafkaConsumerConfig::descartar);
+        return deserializer;
+    }
 
-        return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(),
-                new JsonDeserializer<>(RetornarPartidaDTO.class));
+    private static PartidaEvento descartar(FailedDeserializationInfo info) {
+        log.warn("Registro ilegivel do topico {} ignorado: {}", info.getTopic(), info.getException().getMessage());
+        return null;
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, RetornarPartidaDTO> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, RetornarPartidaDTO> factory =
+    public ConcurrentKafkaListenerContainerFactory<String, PartidaEvento> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, PartidaEvento> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        // um poll inteiro por chamada do listener; com o AckMode BATCH padrao o
+        // commit so acontece depois que o lote foi gravado
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
         return factory;
     }
 }
@@ -1,38 +1,52 @@
 package br.insper.tabela.partida;
 
-import br.insper.loja.partida.dto.RetornarPartidaDTO;
-import br.insper.tabela.tabela.Tabela;
-import br.insper.tabela.tabela.TabelaDTO;
-import br.insper.tabela.tabela.TabelaRepository;
+import br.insper.partida.contrato.PartidaEvento;
 import br.insper.tabela.tabela.TabelaService;
+import br.insper.tabela.tabela.TabelaSnapshotService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
-public class PartidaService {
+public class PartidaService implements ConsumerSeekAware {
 
     @Autowired
-    private TabelaRepository tabelaRepository;
+    private TabelaService tabelaService;
 
-    @KafkaListener(topics = "partidas")
-    public void getPartidas(RetornarPartidaDTO dto) {
-
-        List<Tabela> tabelas = tabelaRepository.findAll();
-
-        for (Tabela tabela : tabelas) {
-            if (tabela.getTime().equals(dto.getNomeMandante())) {
+    @Autowired
+    private TabelaSnapshotService tabelaSnapshotService;
 
-            } else if (tabela.getTime().equals(dto.getNomeVisitante())) {
+    // um lote por poll; os offsets so sao confirmados no kafka depois que o
+    // metodo retorna, ou seja, depois da gravacao no mongo
+    @KafkaListener(topics = "partidas")
+    public void getPartidas(List<ConsumerRecord<String, PartidaEvento>> records) {
+        Map<Integer, Long> proximosOffsets = new HashMap<>();
+        for (ConsumerRecord<String, PartidaEvento> record : records) {
+            proximosOffsets.merge(record.partition(), record.offset() + 1, Math::max);
+        }
+        tabelaService.registrarResultados(records, proximosOffsets);
+    }
 
+    // a tabela em memoria continua exatamente de onde a gravacao parou; particao
+    // que nunca foi gravada e lida desde o inicio
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        Map<Integer, Long> offsets = tabelaSnapshotService.carregar();
+        for (TopicPartition particao : assignments.keySet()) {
+            Long offset = offsets.get(particao.partition());
+            if (offset != null) {
+                callback.seek(particao.topic(), particao.partition(), offset);
+            } else {
+                callback.seekToBeginning(particao.topic(), particao.partition());
             }
-
-
         }
-
-
     }
 
 
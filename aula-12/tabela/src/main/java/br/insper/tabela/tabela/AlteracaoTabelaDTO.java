@@ -0,0 +1,21 @@
+package br.insper.tabela.tabela;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+// um frame de GET /tabela/stream. completa = true traz todas as linhas (quem
+// acabou de se inscrever ou ficou para tras demais); senao so as linhas que
+// mudaram de dados ou de posicao desde o frame anterior
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlteracaoTabelaDTO {
+    private Long sequencia;
+    private Boolean completa;
+    private List<LinhaAlteradaDTO> linhas;
+}
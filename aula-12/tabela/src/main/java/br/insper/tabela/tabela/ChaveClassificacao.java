@@ -0,0 +1,57 @@
+package br.insper.tabela.tabela;
+
+// a posicao de um time na tabela cabe num long so: pontos, vitorias, saldo,
+// gols pro e o ordinal do time, nessa ordem, do bit mais alto para o mais
+// baixo. Chave maior fica mais acima na tabela, entao ordenar a tabela e
+// ordenar longs, sem comparator, sem boxing e sem comparar nomes.
+//
+// O bit de sinal nao e usado, entao a chave e sempre positiva. Um valor que
+// nao cabe na sua faixa satura no limite: a ordem continua correta, so
+// deixa de distinguir dois times acima do limite (bem mais do que um
+// campeonato de verdade chega perto)
+public final class ChaveClassificacao {
+
+    static final int BITS_ORDINAL = 11;
+    static final int BITS_GOLS_PRO = 13;
+    static final int BITS_SALDO = 13;
+    static final int BITS_VITORIAS = 12;
+    static final int BITS_PONTOS = 14;
+
+    public static final int MAX_TIMES = 1 << BITS_ORDINAL;
+
+    private static final int DESLOCAMENTO_GOLS_PRO = BITS_ORDINAL;
+    private static final int DESLOCAMENTO_SALDO = DESLOCAMENTO_GOLS_PRO + BITS_GOLS_PRO;
+    private static final int DESLOCAMENTO_VITORIAS = DESLOCAMENTO_SALDO + BITS_SALDO;
+    private static final int DESLOCAMENTO_PONTOS = DESLOCAMENTO_VITORIAS + BITS_VITORIAS;
+
+    // o saldo pode ser negativo: guarda saldo + metade da faixa
+    private static final int DESLOCAMENTO_ZERO_SALDO = 1 << (BITS_SALDO - 1);
+
+    private ChaveClassificacao() {
+    }
+
+    // o ordinal desempata times iguais em tudo: quem entrou antes na tabela
+    // (ordinal menor) fica na frente
+    public static long de(int pontos, int vitorias, int saldoGols, int golsPro, int ordinal) {
+        if (ordinal < 0 || ordinal >= MAX_TIMES) {
+            throw new IllegalArgumentException("ordinal de time fora da faixa: " + ordinal);
+        }
+        return campo(pontos, BITS_PONTOS) << DESLOCAMENTO_PONTOS
+                | campo(vitorias, BITS_VITORIAS) << DESLOCAMENTO_VITORIAS
+                | campo(saldoGols + DESLOCAMENTO_ZERO_SALDO, BITS_SALDO) << DESLOCAMENTO_SALDO
+                | campo(golsPro, BITS_GOLS_PRO) << DESLOCAMENTO_GOLS_PRO
+                | (MAX_TIMES - 1 - ordinal);
+    }
+
+    public static long de(LinhaTabela linha, int ordinal) {
+        return de(linha.pontos(), linha.vitorias(), linha.saldoGols(), linha.golsPro(), ordinal);
+    }
+
+    public static int ordinal(long chave) {
+        return MAX_TIMES - 1 - (int) (chave & (MAX_TIMES - 1));
+    }
+
+    private static long campo(int valor, int bits) {
+        return Math.clamp(valor, 0, (1 << bits) - 1);
+    }
+}
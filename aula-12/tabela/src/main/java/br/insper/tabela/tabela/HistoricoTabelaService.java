@@ -0,0 +1,75 @@
+package br.insper.tabela.tabela;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// classificacao fechada a cada resultadosPorRodada resultados aplicados (com
+// 20 times, 10 resultados sao uma rodada). A partida nao tem rodada no
+// contrato, entao a rodada aqui e a contagem desses fechamentos desde que o
+// servico subiu: o historico fica so em memoria e a numeracao recomeca do 1
+// num restart ou em outra instancia.
+//
+// TabelaService aplica cada lote em pedacos de no maximo getFaltantes()
+// resultados, entao um lote grande fecha uma rodada a cada resultadosPorRodada
+// resultados, cada uma com a classificacao daquele ponto.
+//
+// Cada rodada guardada e so um array com referencias para as linhas da
+// classificacao. As linhas sao imutaveis e um time que nao jogou entre duas
+// rodadas continua com a mesma linha, entao as rodadas dividem as linhas entre
+// si: cada rodada a mais custa um ponteiro por time mais as linhas dos times
+// que jogaram. Ler uma rodada e percorrer esse array
+@Service
+public class HistoricoTabelaService {
+
+    @Autowired
+    private TabelaMaterializada tabelaMaterializada;
+
+    @Value("${tabela.historico.resultados-por-rodada:10}")
+    private int resultadosPorRodada;
+
+    @Value("${tabela.historico.max-rodadas:1000}")
+    private int maxRodadas;
+
+    private final Map<Integer, List<LinhaTabela>> rodadas = new ConcurrentHashMap<>();
+
+    private int rodadaAtual;
+
+    private int pendentes;
+
+    // quantos resultados ainda faltam para fechar a rodada atual; pode dar zero
+    // ou menos quando listeners em paralelo passaram juntos do limite
+    public synchronized int getFaltantes() {
+        return resultadosPorRodada - pendentes;
+    }
+
+    // chamado depois de cada pedaco aplicado com o numero de resultados que mudaram
+    public synchronized void registrar(int alterados) {
+        pendentes += alterados;
+        if (pendentes < resultadosPorRodada) {
+            return;
+        }
+        // listeners de particoes diferentes aplicam em paralelo e podem passar
+        // juntos do limite; o excedente conta para a rodada seguinte, entao a
+        // rodada k continua perto de k * resultadosPorRodada resultados
+        pendentes -= resultadosPorRodada;
+        rodadaAtual++;
+        rodadas.put(rodadaAtual, tabelaMaterializada.getClassificacaoFechada());
+        rodadas.remove(rodadaAtual - maxRodadas);
+    }
+
+    public List<TabelaDTO> getTabela(int rodada) {
+        List<LinhaTabela> classificacao = rodadas.get(rodada);
+        if (classificacao == null) {
+            throw new RodadaNaoEncontradaException("Rodada nao encontrada");
+        }
+        return classificacao.stream()
+                .map(TabelaDTO::convert)
+                .toList();
+    }
+
+}
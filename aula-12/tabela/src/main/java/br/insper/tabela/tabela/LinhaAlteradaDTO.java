@@ -0,0 +1,25 @@
+package br.insper.tabela.tabela;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LinhaAlteradaDTO {
+    private Integer posicao;
+    private Integer idTime;
+    private String time;
+    private Integer pontos;
+    private Integer vitorias;
+    private Integer golsPro;
+    private Integer golsContra;
+
+    public static LinhaAlteradaDTO convert(int posicao, LinhaTabela linha) {
+        return new LinhaAlteradaDTO(posicao, linha.idTime(), linha.time(), linha.pontos(), linha.vitorias(),
+                linha.golsPro(), linha.golsContra());
+    }
+}
@@ -0,0 +1,16 @@
+package br.insper.tabela.tabela;
+
+// linha imutavel da classificacao: cada resultado gera uma linha nova. A ordem
+// da tabela vem de ChaveClassificacao
+public record LinhaTabela(Integer idTime, String time, int pontos, int vitorias, int golsPro, int golsContra) {
+
+    public int saldoGols() {
+        return golsPro - golsContra;
+    }
+
+    // time nulo mantem o nome atual (retirada de um resultado antigo)
+    public LinhaTabela somar(String time, int pontos, int vitorias, int golsPro, int golsContra) {
+        return new LinhaTabela(idTime, time != null ? time : this.time, this.pontos + pontos,
+                this.vitorias + vitorias, this.golsPro + golsPro, this.golsContra + golsContra);
+    }
+}
@@ -0,0 +1,18 @@
+package br.insper.tabela.tabela;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconstrucaoDTO {
+    private Integer particoes;
+    private Long eventos;
+    private Integer partidas;
+    private Long duracaoMs;
+    private Long eventosPorSegundo;
+}
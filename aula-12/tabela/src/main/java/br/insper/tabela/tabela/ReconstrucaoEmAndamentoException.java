@@ -0,0 +1,7 @@
+package br.insper.tabela.tabela;
+
+public class ReconstrucaoEmAndamentoException extends RuntimeException {
+    public ReconstrucaoEmAndamentoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,161 @@
+package br.insper.tabela.tabela;
+
+import br.insper.partida.contrato.PartidaEvento;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// reconstroi a tabela do zero lendo o topico partidas desde o inicio.
+//
+// Cada particao e lida por um consumidor proprio, em paralelo, ate o fim que
+// ela tinha quando a reconstrucao comecou. Como a chave do evento e o id da
+// partida, todos os eventos de uma partida estao na mesma particao: cada uma
+// devolve o ultimo evento de suas partidas e o merge e so a uniao dos mapas
+@Service
+public class ReconstrucaoTabelaService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconstrucaoTabelaService.class);
+
+    static final String TOPICO = "partidas";
+
+    @Autowired
+    private ConsumerFactory<String, PartidaEvento> consumerFactory;
+
+    @Autowired
+    private TabelaMaterializada tabelaMaterializada;
+
+    @Autowired
+    private TabelaSnapshotService tabelaSnapshotService;
+
+    @Value("${tabela.reconstrucao.max-poll-records:5000}")
+    private int maxPollRecords;
+
+    @Value("${tabela.reconstrucao.timeout-poll:1000}")
+    private long timeoutPoll;
+
+    private final AtomicBoolean emAndamento = new AtomicBoolean();
+
+    public ReconstrucaoDTO reconstruir() {
+        if (!emAndamento.compareAndSet(false, true)) {
+            throw new ReconstrucaoEmAndamentoException("Já existe uma reconstrução da tabela em andamento");
+        }
+        try {
+            long inicio = System.nanoTime();
+
+            List<Integer> particoes = getParticoes();
+            List<LeituraParticao> leituras = new ArrayList<>();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<LeituraParticao>> futures = new ArrayList<>();
+                for (Integer particao : particoes) {
+                    futures.add(executor.submit(() -> lerParticao(particao)));
+                }
+                for (Future<LeituraParticao> future : futures) {
+                    leituras.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Reconstrução da tabela interrompida", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Erro ao ler o tópico " + TOPICO, e.getCause());
+            }
+
+            Map<Integer, PartidaEvento> ultimos = new HashMap<>();
+            Map<Integer, Long> offsetsFim = new HashMap<>();
+            long eventos = 0;
+            for (LeituraParticao leitura : leituras) {
+                leitura.ultimos().forEach((id, evento) -> ultimos.merge(id, evento,
+                        ReconstrucaoTabelaService::maisNovo));
+                offsetsFim.put(leitura.particao(), leitura.offsetFim());
+                eventos += leitura.eventos();
+            }
+
+            tabelaMaterializada.substituir(ultimos.values(), offsetsFim);
+            tabelaSnapshotService.salvarTudo();
+
+            long duracao = System.nanoTime() - inicio;
+            long duracaoMs = TimeUnit.NANOSECONDS.toMillis(duracao);
+            long eventosPorSegundo = duracao > 0 ? eventos * 1_000_000_000L / duracao : eventos;
+            log.info("Tabela reconstruida: {} eventos de {} particoes em {} ms ({} eventos/s)",
+                    eventos, particoes.size(), duracaoMs, eventosPorSegundo);
+
+            return new ReconstrucaoDTO(particoes.size(), eventos, ultimos.size(), duracaoMs, eventosPorSegundo);
+        } finally {
+            emAndamento.set(false);
+        }
+    }
+
+    private List<Integer> getParticoes() {
+        try (Consumer<String, PartidaEvento> consumer = criarConsumidor("particoes")) {
+            return consumer.partitionsFor(TOPICO).stream()
+                    .map(PartitionInfo::partition)
+                    .toList();
+        }
+    }
+
+    private LeituraParticao lerParticao(int particao) {
+        TopicPartition topicPartition = new TopicPartition(TOPICO, particao);
+        Map<Integer, PartidaEvento> ultimos = new HashMap<>();
+        long eventos = 0;
+
+        try (Consumer<String, PartidaEvento> consumer = criarConsumidor(String.valueOf(particao))) {
+            consumer.assign(List.of(topicPartition));
+            consumer.seekToBeginning(List.of(topicPartition));
+            long fim = consumer.endOffsets(List.of(topicPartition)).get(topicPartition);
+
+            while (consumer.position(topicPartition) < fim) {
+                for (ConsumerRecord<String, PartidaEvento> record : consumer.poll(Duration.ofMillis(timeoutPoll))) {
+                    if (record.offset() >= fim) {
+                        break;
+                    }
+                    PartidaEvento evento = record.value();
+                    if (evento != null && evento.getId() != null) {
+                        ultimos.merge(evento.getId(), evento, ReconstrucaoTabelaService::maisNovo);
+                    }
+                    eventos++;
+                }
+            }
+            return new LeituraParticao(particao, fim, eventos, ultimos);
+        }
+    }
+
+    // dentro de uma particao o evento que chega depois vale, salvo se tiver versao menor
+    private static PartidaEvento maisNovo(PartidaEvento atual, PartidaEvento novo) {
+        if (atual.getVersao() != null && novo.getVersao() != null && atual.getVersao() > novo.getVersao()) {
+            return atual;
+        }
+        return novo;
+    }
+
+    // consumidor avulso, com assign e sem commit: nao mexe nos offsets do grupo do listener
+    private Consumer<String, PartidaEvento> criarConsumidor(String sufixo) {
+        Properties config = new Properties();
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        return consumerFactory.createConsumer(null, "tabela-reconstrucao-", sufixo, config);
+    }
+
+    private record LeituraParticao(int particao, long offsetFim, long eventos,
+                                   Map<Integer, PartidaEvento> ultimos) {
+    }
+}
@@ -0,0 +1,31 @@
+package br.insper.tabela.tabela;
+
+import br.insper.partida.contrato.PartidaEvento;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// ultimo resultado aplicado de cada partida: e o que permite desfazer uma
+// correcao e reconhecer uma entrega repetida sem recalcular a tabela. E tambem
+// o que vai para o mongo: as linhas da tabela sao recalculadas a partir dele
+@Document
+public record ResultadoPartida(@Id Integer idPartida, Long versao,
+                               Integer idMandante, String nomeMandante,
+                               Integer idVisitante, String nomeVisitante,
+                               Integer placarMandante, Integer placarVisitante, boolean realizada) {
+
+    public static ResultadoPartida of(PartidaEvento partida) {
+        return new ResultadoPartida(partida.getId(), partida.getVersao(),
+                partida.getIdMandante(), partida.getNomeMandante(),
+                partida.getIdVisitante(), partida.getNomeVisitante(),
+                partida.getPlacarMandante(), partida.getPlacarVisitante(),
+                "REALIZADA".equals(partida.getStatus()));
+    }
+
+    // eventos sem versao (formato antigo) so sao descartados se forem identicos
+    public boolean isIgualOuMaisNovo(ResultadoPartida outro) {
+        if (versao != null && outro.versao != null) {
+            return versao >= outro.versao;
+        }
+        return equals(outro);
+    }
+}
@@ -0,0 +1,7 @@
+package br.insper.tabela.tabela;
+
+public class RodadaNaoEncontradaException extends RuntimeException {
+    public RodadaNaoEncontradaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,37 @@
+package br.insper.tabela.tabela;
+
+import br.insper.tabela.common.Erro;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.LocalDateTime;
+
+@ControllerAdvice
+public class TabelaAdvice {
+
+    @ExceptionHandler(ReconstrucaoEmAndamentoException.class)
+    @ResponseBody
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Erro reconstrucaoEmAndamentoHandler(ReconstrucaoEmAndamentoException e) {
+        Erro erro = new Erro();
+        erro.setMensagem(e.getMessage());
+        erro.setData(LocalDateTime.now());
+        erro.setCodigo(409);
+        return erro;
+    }
+
+    @ExceptionHandler(RodadaNaoEncontradaException.class)
+    @ResponseBody
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public Erro rodadaNaoEncontradaHandler(RodadaNaoEncontradaException e) {
+        Erro erro = new Erro();
+        erro.setMensagem(e.getMessage());
+        erro.setData(LocalDateTime.now());
+        erro.setCodigo(404);
+        return erro;
+    }
+
+}
@@ -1,8 +1,16 @@
 package br.insper.tabela.tabela;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -12,8 +20,48 @@ public class TabelaController {
     @Autowired
     private TabelaService tabelaService;
 
+    @Autowired
+    private ReconstrucaoTabelaService reconstrucaoTabelaService;
+
+    @Autowired
+    private TabelaStreamService tabelaStreamService;
+
+    @Autowired
+    private HistoricoTabelaService historicoTabelaService;
+
+    // o corpo sai pronto da memoria; com If-None-Match igual ao ETag atual a
+    // resposta e um 304 sem corpo
     @GetMapping("/tabela")
-    public List<TabelaDTO> getTabela() {
-        return tabelaService.getTabela();
+    public ResponseEntity<byte[]> getTabela(WebRequest request) {
+        TabelaSerializada tabela = tabelaService.getTabelaSerializada();
+        if (request.checkNotModified(tabela.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(tabela.etag())
+                .body(tabela.json());
+    }
+
+    // o historico fica so em memoria: a rodada 1 e a primeira fechada desde que
+    // esta instancia subiu, a numeracao recomeca num restart e so as ultimas
+    // tabela.historico.max-rodadas ficam guardadas (as outras dao 404)
+    @GetMapping(value = "/tabela", params = "rodada")
+    public List<TabelaDTO> getTabela(@RequestParam Integer rodada) {
+        return historicoTabelaService.getTabela(rodada);
+    }
+
+    // o navegador reconecta sozinho mandando Last-Event-ID; quem nao usa
+    // EventSource pode passar a ultima sequencia vista em ?desde=
+    @GetMapping(value = "/tabela/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) Long ultimoEvento,
+                             @RequestParam(required = false) Long desde) {
+        return tabelaStreamService.inscrever(ultimoEvento != null ? ultimoEvento : desde);
+    }
+
+    @PostMapping("/tabela/reconstruir")
+    public ReconstrucaoDTO reconstruir() {
+        return reconstrucaoTabelaService.reconstruir();
     }
 }
@@ -12,6 +12,11 @@ import lombok.Setter;
 public class TabelaDTO {
     private String time;
     private Integer pontos;
+    private Integer vitorias;
     private Integer golsPro;
     private Integer golsContra;
+
+    public static TabelaDTO convert(LinhaTabela linha) {
+        return new TabelaDTO(linha.time(), linha.pontos(), linha.vitorias(), linha.golsPro(), linha.golsContra());
+    }
 }
@@ -0,0 +1,317 @@
+package br.insper.tabela.tabela;
+
+import br.insper.partida.contrato.PartidaEvento;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// classificacao ao vivo em memoria, sempre ordenada.
+//
+// O skip list e ordenado pela chave de ChaveClassificacao (um long por time,
+// decrescente). Cada time ganha um ordinal na primeira vez que aparece, que
+// desempata times iguais em tudo e nao muda mais enquanto o Estado existir.
+// Mudar um time de posicao e tirar uma chave e por outra.
+//
+// Cada time pertence a uma faixa de locks (o id do time escolhe a faixa): duas
+// atualizacoes do mesmo time nunca se intercalam, e os listeners de particoes
+// diferentes atualizam times de faixas diferentes em paralelo. A leitura
+// percorre o skip list sem lock nenhum.
+//
+// Cada partida guarda o ultimo resultado aplicado. Uma correcao retira o
+// resultado antigo e aplica o novo; uma entrega repetida ou fora de ordem
+// (versao menor ou igual) e descartada com uma consulta ao mapa.
+//
+// Os eventos chegam em lotes: dentro de um lote so o evento mais novo de cada
+// partida e aplicado, e os deltas de todas as partidas sao somados por time
+// antes de mexer na classificacao, entao cada time muda de posicao uma vez
+// por lote.
+//
+// Todo o estado fica num Estado so, trocado por referencia: carregar do mongo
+// ou entrar com uma tabela reconstruida e uma atribuicao, e quem esta lendo
+// continua vendo a tabela antiga inteira ate terminar.
+//
+// O lock de leitura/escrita existe so para a copia e para a troca: os lotes
+// entram com o lock de leitura (compartilhado entre os listeners) e getSnapshot
+// pega o de escrita por alguns microssegundos para copiar tudo junto
+@Component
+public class TabelaMaterializada {
+
+    private static final int TENTATIVAS_LEITURA = 3;
+
+    // potencia de 2, bem maior que o numero de listeners
+    private static final int FAIXAS = 64;
+
+    private volatile Estado estado = new Estado();
+
+    private final AtomicLong versao = new AtomicLong();
+
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+
+    // aplica o lote e avanca os offsets das particoes juntos; devolve os
+    // resultados de partida que mudaram, que sao o que precisa ir para o mongo.
+    // Evento sem id de partida nao tem como ser desfeito depois e e ignorado
+    public List<ResultadoPartida> registrar(List<ConsumerRecord<String, PartidaEvento>> records,
+                                            Map<Integer, Long> proximosOffsets) {
+        snapshotLock.readLock().lock();
+        try {
+            Map<Integer, ResultadoPartida> ultimos = new LinkedHashMap<>();
+            Map<Integer, Posicao> posicoes = new HashMap<>();
+            for (ConsumerRecord<String, PartidaEvento> record : records) {
+                PartidaEvento partida = record.value();
+                if (partida == null || partida.getId() == null) {
+                    continue;
+                }
+                ResultadoPartida novo = ResultadoPartida.of(partida);
+                ResultadoPartida anterior = ultimos.get(partida.getId());
+                if (anterior == null || !anterior.isIgualOuMaisNovo(novo)) {
+                    ultimos.put(partida.getId(), novo);
+                    posicoes.put(partida.getId(), new Posicao(record.partition(), record.offset()));
+                }
+            }
+
+            Estado atual = estado;
+            List<ResultadoPartida> alterados = atual.aplicar(ultimos.values());
+            for (ResultadoPartida alterado : alterados) {
+                atual.posicoes.put(alterado.idPartida(), posicoes.get(alterado.idPartida()));
+            }
+            proximosOffsets.forEach((particao, offset) -> atual.offsets.merge(particao, offset, Math::max));
+            // a versao conta mudancas na classificacao; lote so de repeticoes nao muda nada
+            if (!alterados.isEmpty()) {
+                versao.incrementAndGet();
+            }
+            return alterados;
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    public List<ResultadoPartida> registrar(PartidaEvento partida, int particao, long offset) {
+        ConsumerRecord<String, PartidaEvento> record =
+                new ConsumerRecord<>(ReconstrucaoTabelaService.TOPICO, particao, offset, null, partida);
+        return registrar(List.of(record), Map.of(particao, offset + 1));
+    }
+
+    // leitura sem lock. Enquanto um time muda de posicao, o iterador do skip
+    // list pode passar pela linha antiga e pela nova, ou por nenhuma das duas;
+    // a primeira repete a linha e e descartada, a segunda faz a leitura ser refeita
+    public List<LinhaTabela> getClassificacao() {
+        Estado atual = estado;
+        Map<Integer, LinhaTabela> vistas = new LinkedHashMap<>();
+        for (int tentativa = 1; tentativa <= TENTATIVAS_LEITURA; tentativa++) {
+            vistas.clear();
+            for (LinhaTabela linha : atual.classificacao.values()) {
+                vistas.putIfAbsent(linha.idTime(), linha);
+            }
+            if (vistas.size() >= atual.linhas.size()) {
+                break;
+            }
+        }
+        return new ArrayList<>(vistas.values());
+    }
+
+    // a classificacao entre dois lotes, nunca no meio de um: com o lock de
+    // escrita nenhum lote esta sendo aplicado
+    public List<LinhaTabela> getClassificacaoFechada() {
+        snapshotLock.writeLock().lock();
+        try {
+            return List.copyOf(getClassificacao());
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    public long getVersao() {
+        return versao.get();
+    }
+
+    public Snapshot getSnapshot() {
+        snapshotLock.writeLock().lock();
+        try {
+            Estado atual = estado;
+            return new Snapshot(versao.get(), List.copyOf(atual.linhas.values()),
+                    List.copyOf(atual.partidas.values()), Map.copyOf(atual.offsets));
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    // as linhas sao recalculadas a partir dos resultados salvos. Eles ficam sem
+    // posicao: estao todos antes dos offsets salvos, e uma reconstrucao le pelo
+    // menos ate ali
+    public void carregar(Collection<ResultadoPartida> partidasSalvas, Map<Integer, Long> offsetsSalvos) {
+        Estado novo = new Estado();
+        novo.aplicar(partidasSalvas);
+        novo.offsets.putAll(offsetsSalvos);
+
+        snapshotLock.writeLock().lock();
+        try {
+            estado = novo;
+            versao.incrementAndGet();
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    // troca a tabela ao vivo por uma reconstruida a partir do ultimo evento de
+    // cada partida. Os offsets de fim sao os da leitura da reconstrucao; so os
+    // resultados que o listener aplicou de eventos nesses offsets ou depois sao
+    // reaplicados na tabela nova antes da troca, entao nada se perde. O resto a
+    // reconstrucao ja leu, e um resultado ao vivo errado (sem versao, por
+    // exemplo) nao volta por cima do reconstruido
+    public void substituir(Collection<PartidaEvento> ultimosEventos, Map<Integer, Long> offsetsFim) {
+        Estado novo = new Estado();
+        novo.aplicar(ultimosEventos.stream().map(ResultadoPartida::of).toList());
+        novo.offsets.putAll(offsetsFim);
+
+        snapshotLock.writeLock().lock();
+        try {
+            Estado atual = estado;
+            List<ResultadoPartida> posteriores = new ArrayList<>();
+            atual.posicoes.forEach((idPartida, posicao) -> {
+                if (posicao.offset() >= offsetsFim.getOrDefault(posicao.particao(), 0L)) {
+                    posteriores.add(atual.partidas.get(idPartida));
+                    novo.posicoes.put(idPartida, posicao);
+                }
+            });
+            novo.aplicar(posteriores);
+            atual.offsets.forEach((particao, offset) -> novo.offsets.merge(particao, offset, Math::max));
+
+            estado = novo;
+            versao.incrementAndGet();
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    private static final class Estado {
+
+        private final Map<Integer, LinhaTabela> linhas = new ConcurrentHashMap<>();
+
+        private final ConcurrentSkipListMap<Long, LinhaTabela> classificacao =
+                new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+
+        private final Map<Integer, ResultadoPartida> partidas = new ConcurrentHashMap<>();
+
+        // particao e offset do evento que deu o resultado de cada partida, para
+        // saber na troca o que veio depois da leitura da reconstrucao
+        private final Map<Integer, Posicao> posicoes = new ConcurrentHashMap<>();
+
+        // proximo offset a consumir de cada particao do topico partidas
+        private final Map<Integer, Long> offsets = new ConcurrentHashMap<>();
+
+        private final Map<Integer, Integer> ordinais = new ConcurrentHashMap<>();
+
+        private final AtomicInteger proximoOrdinal = new AtomicInteger();
+
+        private final Lock[] faixas = new Lock[FAIXAS];
+
+        Estado() {
+            for (int i = 0; i < FAIXAS; i++) {
+                faixas[i] = new ReentrantLock();
+            }
+        }
+
+        // aplica um resultado por partida e devolve os que de fato mudaram
+        List<ResultadoPartida> aplicar(Collection<ResultadoPartida> novos) {
+            Map<Integer, LinhaTabela> deltas = new HashMap<>();
+            List<ResultadoPartida> alterados = new ArrayList<>();
+
+            for (ResultadoPartida novo : novos) {
+                ResultadoPartida aplicado = partidas.compute(novo.idPartida(), (id, anterior) -> {
+                    if (anterior != null && anterior.isIgualOuMaisNovo(novo)) {
+                        return anterior;
+                    }
+                    if (anterior != null) {
+                        somar(deltas, anterior, -1);
+                    }
+                    somar(deltas, novo, 1);
+                    return novo;
+                });
+                if (aplicado == novo) {
+                    alterados.add(novo);
+                }
+            }
+
+            deltas.values().forEach(this::processarTime);
+            return alterados;
+        }
+
+        // sinal 1 soma o resultado aos times, -1 retira
+        private static void somar(Map<Integer, LinhaTabela> deltas, ResultadoPartida resultado, int sinal) {
+            if (!resultado.realizada()) {
+                return;
+            }
+            // na retirada o nome fica nulo e o time mantem o nome atual
+            somar(deltas, resultado.idMandante(), sinal > 0 ? resultado.nomeMandante() : null,
+                    resultado.placarMandante(), resultado.placarVisitante(), sinal);
+            somar(deltas, resultado.idVisitante(), sinal > 0 ? resultado.nomeVisitante() : null,
+                    resultado.placarVisitante(), resultado.placarMandante(), sinal);
+        }
+
+        private static void somar(Map<Integer, LinhaTabela> deltas, Integer idTime, String time,
+                                  int golsPro, int golsContra, int sinal) {
+            int pontos = 0;
+            int vitorias = 0;
+            if (golsPro > golsContra) {
+                pontos = 3; // Vitória
+                vitorias = 1;
+            } else if (golsPro == golsContra) {
+                pontos = 1; // Empate
+            }
+
+            LinhaTabela delta = new LinhaTabela(idTime, time, pontos * sinal, vitorias * sinal,
+                    golsPro * sinal, golsContra * sinal);
+            deltas.merge(idTime, delta, (atual, mais) ->
+                    atual.somar(mais.time(), mais.pontos(), mais.vitorias(), mais.golsPro(), mais.golsContra()));
+        }
+
+        // um lock por vez: um lote nunca segura duas faixas, entao nao ha deadlock
+        private void processarTime(LinhaTabela delta) {
+            Lock faixa = faixas[delta.idTime().hashCode() & (FAIXAS - 1)];
+            faixa.lock();
+            try {
+                int ordinal = ordinais.computeIfAbsent(delta.idTime(), id -> proximoOrdinal.getAndIncrement());
+                LinhaTabela antiga = linhas.get(delta.idTime());
+                LinhaTabela nova = antiga == null
+                        ? delta
+                        : antiga.somar(delta.time(), delta.pontos(), delta.vitorias(),
+                                delta.golsPro(), delta.golsContra());
+                long chaveNova = ChaveClassificacao.de(nova, ordinal);
+                // a nova linha entra antes da antiga sair; getClassificacao trata o
+                // intervalo em que as duas estao no skip list
+                classificacao.put(chaveNova, nova);
+                if (antiga != null) {
+                    long chaveAntiga = ChaveClassificacao.de(antiga, ordinal);
+                    if (chaveAntiga != chaveNova) {
+                        classificacao.remove(chaveAntiga);
+                    }
+                }
+                linhas.put(delta.idTime(), nova);
+            } finally {
+                faixa.unlock();
+            }
+        }
+    }
+
+    private record Posicao(int particao, long offset) {
+    }
+
+    public record Snapshot(long versao, List<LinhaTabela> linhas, List<ResultadoPartida> partidas,
+                           Map<Integer, Long> offsets) {
+    }
+}
@@ -0,0 +1,6 @@
+package br.insper.tabela.tabela;
+
+// o json de GET /tabela de uma versao da TabelaMaterializada, pronto para ir
+// direto para a resposta
+public record TabelaSerializada(long versao, byte[] json, String etag) {
+}
@@ -1,66 +1,97 @@
 package br.insper.tabela.tabela;
 
-import br.insper.tabela.partida.PartidaService;
+import br.insper.partida.contrato.PartidaEvento;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 public class TabelaService {
 
     @Autowired
-    private PartidaService partidaService;
+    private TabelaMaterializada tabelaMaterializada;
 
     @Autowired
-    private TabelaRepository tabelaRepository;
+    private TabelaSnapshotService tabelaSnapshotService;
 
-    public List<TabelaDTO> getTabela() {
+    @Autowired
+    private HistoricoTabelaService historicoTabelaService;
 
-        return null;
-        /*
-        List<RetornarPartidaDTO> partidas = partidaService.getPartidas();
+    @Autowired
+    private ObjectMapper objectMapper;
 
-        Map<String, TabelaDTO> tabela = new HashMap<>();
+    private volatile TabelaSerializada tabelaSerializada;
 
-        for (RetornarPartidaDTO partida : partidas) {
-            if (partida.getStatus().equals("REALIZADA")) {
-                processarTime(tabela, partida.getNomeMandante(), partida.getPlacarMandante(), partida.getPlacarVisitante());
-                processarTime(tabela, partida.getNomeVisitante(), partida.getPlacarVisitante(), partida.getPlacarMandante());
-            }
-        }
+    // leitura direto da memoria; o mongo so e lido no restart
+    public List<TabelaDTO> getTabela() {
+        return tabelaMaterializada.getClassificacao().stream()
+                .map(TabelaDTO::convert)
+                .toList();
+    }
 
-        tabelaRepository.deleteAll();
-        for (TabelaDTO tabelaDTO : tabela.values()) {
-            Tabela tab = new Tabela();
-            tab.setTime(tabelaDTO.getTime());
-            tab.setPontos(tabelaDTO.getPontos());
-            tab.setGolsContra(tabelaDTO.getGolsContra());
-            tab.setGolsPro(tabelaDTO.getGolsPro());
-            tabelaRepository.save(tab);
+    // o json so e refeito quando a versao da tabela muda (um lote do listener,
+    // carga do mongo ou reconstrucao); nas outras leituras e o mesmo byte[]
+    public TabelaSerializada getTabelaSerializada() {
+        TabelaSerializada atual = tabelaSerializada;
+        if (atual != null && atual.versao() == tabelaMaterializada.getVersao()) {
+            return atual;
         }
-
-        return new ArrayList<>(tabela.values()).stream()
-                .sorted(Comparator.comparing(TabelaDTO::getPontos).reversed())
-                .collect(Collectors.toList());
-
-         */
-
+        return serializar();
     }
 
-    private void processarTime(Map<String, TabelaDTO> tabela, String time, int golsPro, int golsContra) {
-        TabelaDTO tabelaTime = tabela.getOrDefault(time, new TabelaDTO(time, 0, 0, 0));
-
-        tabelaTime.setGolsPro(tabelaTime.getGolsPro() + golsPro);
-        tabelaTime.setGolsContra(tabelaTime.getGolsContra() + golsContra);
+    // varias leituras chegando juntas depois de uma mudanca serializam uma vez so
+    private synchronized TabelaSerializada serializar() {
+        // a versao e lida antes da classificacao: se mudar no meio, a proxima
+        // leitura ve a versao nova e serializa de novo
+        long versao = tabelaMaterializada.getVersao();
+        TabelaSerializada atual = tabelaSerializada;
+        if (atual != null && atual.versao() == versao) {
+            return atual;
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(getTabela());
+            atual = new TabelaSerializada(versao, json, "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("falha ao serializar a tabela", e);
+        }
+        tabelaSerializada = atual;
+        return atual;
+    }
 
-        if (golsPro > golsContra) {
-            tabelaTime.setPontos(tabelaTime.getPontos() + 3); // Vitória
-        } else if (golsPro == golsContra) {
-            tabelaTime.setPontos(tabelaTime.getPontos() + 1); // Empate
+    // um lote do listener: aplica em memoria e grava o que mudou antes de o
+    // container confirmar os offsets no kafka. O lote entra em pedacos de no
+    // maximo o que falta para fechar a rodada do historico
+    public void registrarResultados(List<ConsumerRecord<String, PartidaEvento>> records,
+                                    Map<Integer, Long> proximosOffsets) {
+        Map<Integer, ResultadoPartida> alterados = new LinkedHashMap<>();
+        int inicio = 0;
+        while (inicio < records.size()) {
+            int fim = Math.min(records.size(), inicio + Math.max(1, historicoTabelaService.getFaltantes()));
+            List<ConsumerRecord<String, PartidaEvento>> pedaco = records.subList(inicio, fim);
+            List<ResultadoPartida> aplicados = tabelaMaterializada.registrar(pedaco, getProximosOffsets(pedaco));
+            historicoTabelaService.registrar(aplicados.size());
+            // a mesma partida em dois pedacos vai para o mongo uma vez, com o resultado final
+            aplicados.forEach(resultado -> alterados.put(resultado.idPartida(), resultado));
+            inicio = fim;
         }
+        tabelaSnapshotService.salvar(new ArrayList<>(alterados.values()), proximosOffsets);
+    }
 
-        tabela.put(time, tabelaTime);
+    private static Map<Integer, Long> getProximosOffsets(List<ConsumerRecord<String, PartidaEvento>> records) {
+        Map<Integer, Long> proximosOffsets = new HashMap<>();
+        for (ConsumerRecord<String, PartidaEvento> record : records) {
+            proximosOffsets.merge(record.partition(), record.offset() + 1, Math::max);
+        }
+        return proximosOffsets;
     }
 
 }
@@ -0,0 +1,22 @@
+package br.insper.tabela.tabela;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// ate onde o topico partidas ja esta gravado na colecao de resultados. So
+// avanca depois que o lote de resultados foi gravado, entao no restart o que
+// vem depois destes offsets e relido e o que ja estava gravado e descartado
+// pela versao
+@Document
+@Getter
+@Setter
+public class TabelaSnapshot {
+    private String id;
+    // particao -> proximo offset do topico partidas
+    private Map<String, Long> offsets;
+    private LocalDateTime data;
+}
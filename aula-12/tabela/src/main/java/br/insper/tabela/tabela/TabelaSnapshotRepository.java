@@ -2,5 +2,5 @@ package br.insper.tabela.tabela;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-public interface TabelaRepository extends MongoRepository<Tabela, String> {
+public interface TabelaSnapshotRepository extends MongoRepository<TabelaSnapshot, String> {
 }
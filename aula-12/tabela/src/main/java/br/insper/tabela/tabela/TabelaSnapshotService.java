@@ -0,0 +1,106 @@
+package br.insper.tabela.tabela;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class TabelaSnapshotService {
+
+    static final String ID_SNAPSHOT = "partidas";
+
+    private static final int CHAVE_DUPLICADA = 11000;
+
+    @Autowired
+    private TabelaMaterializada tabelaMaterializada;
+
+    @Autowired
+    private TabelaSnapshotRepository tabelaSnapshotRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private boolean carregado;
+
+    // resultados aplicados em memoria que ainda nao foram gravados; se um
+    // flush falha eles continuam aqui e vao no proximo
+    private final Map<Integer, ResultadoPartida> pendentes = new ConcurrentHashMap<>();
+
+    // chamado quando o listener recebe as particoes, antes do primeiro evento;
+    // devolve o offset de onde cada particao deve continuar
+    public synchronized Map<Integer, Long> carregar() {
+        if (!carregado) {
+            List<ResultadoPartida> partidas = mongoTemplate.findAll(ResultadoPartida.class);
+            Map<Integer, Long> offsets = new HashMap<>();
+            tabelaSnapshotRepository.findById(ID_SNAPSHOT).ifPresent(snapshot ->
+                    snapshot.getOffsets().forEach((particao, offset) ->
+                            offsets.put(Integer.valueOf(particao), offset)));
+            tabelaMaterializada.carregar(partidas, offsets);
+            carregado = true;
+        }
+        return tabelaMaterializada.getSnapshot().offsets();
+    }
+
+    // grava os resultados alterados com um unico bulk nao ordenado e so depois
+    // avanca os offsets. Cada partida e um documento, entao a ordem dentro do
+    // bulk nao importa
+    public void salvar(Collection<ResultadoPartida> alterados, Map<Integer, Long> proximosOffsets) {
+        alterados.forEach(resultado -> pendentes.put(resultado.idPartida(), resultado));
+
+        if (!pendentes.isEmpty()) {
+            List<ResultadoPartida> lote = List.copyOf(pendentes.values());
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ResultadoPartida.class);
+            for (ResultadoPartida resultado : lote) {
+                bulk.replaceOne(getFiltro(resultado), resultado, FindAndReplaceOptions.options().upsert());
+            }
+            try {
+                bulk.execute();
+            } catch (BulkOperationException e) {
+                // chave duplicada = o filtro de versao nao casou porque o mongo ja
+                // tem uma versao igual ou mais nova gravada por outro listener
+                if (e.getErrors().stream().anyMatch(erro -> erro.getCode() != CHAVE_DUPLICADA)) {
+                    throw e;
+                }
+            }
+            // so sai de pendentes se ninguem colocou uma versao mais nova no meio
+            lote.forEach(resultado -> pendentes.remove(resultado.idPartida(), resultado));
+        }
+
+        if (!proximosOffsets.isEmpty()) {
+            // $max: com mais de um listener, um lote atrasado nunca volta o offset de outro
+            Update update = new Update().set("data", LocalDateTime.now());
+            proximosOffsets.forEach((particao, offset) -> update.max("offsets." + particao, offset));
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(ID_SNAPSHOT)), update, TabelaSnapshot.class);
+        }
+    }
+
+    // com varios listeners, dois flushes podem levar a mesma partida; o filtro
+    // pela versao impede que o mais lento sobrescreva uma versao mais nova
+    private static Query getFiltro(ResultadoPartida resultado) {
+        Criteria filtro = Criteria.where("_id").is(resultado.idPartida());
+        if (resultado.versao() != null) {
+            filtro = filtro.orOperator(Criteria.where("versao").lt(resultado.versao()),
+                    Criteria.where("versao").is(null));
+        }
+        return Query.query(filtro);
+    }
+
+    // depois de uma reconstrucao todos os resultados podem ter mudado
+    public void salvarTudo() {
+        TabelaMaterializada.Snapshot snapshot = tabelaMaterializada.getSnapshot();
+        salvar(snapshot.partidas(), snapshot.offsets());
+    }
+}
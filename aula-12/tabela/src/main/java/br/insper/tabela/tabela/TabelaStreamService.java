@@ -0,0 +1,256 @@
+package br.insper.tabela.tabela;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// GET /tabela/stream. Uma thread do scheduler olha a versao da tabela a cada
+// intervalo e, se mudou, compara a classificacao com o ultimo frame enviado e
+// monta um frame so com as linhas diferentes. Varios lotes do listener dentro
+// do mesmo intervalo viram um frame so.
+//
+// Cada inscrito tem uma fila pequena, esvaziada por um pool fixo de threads
+// de envio compartilhado por todos: a tarefa que esvazia a fila so e agendada
+// quando ela deixa de estar vazia, entao inscrito parado nao ocupa thread. O
+// scheduler so enfileira, sem esperar a rede, entao um cliente lento nao
+// atrasa os outros nem quem esta se inscrevendo; se a fila de um inscrito
+// enche, ela e trocada pela tabela completa.
+//
+// Os ultimos frames ficam guardados: quem reconecta com Last-Event-ID recebe
+// o que perdeu; quem ficou para tras mais que isso recebe a tabela completa
+@Service
+public class TabelaStreamService {
+
+    @Autowired
+    private TabelaMaterializada tabelaMaterializada;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${tabela.stream.timeout:1800000}")
+    private long timeout;
+
+    @Value("${tabela.stream.frames-guardados:256}")
+    private int framesGuardados;
+
+    @Value("${tabela.stream.tamanho-fila:16}")
+    private int tamanhoFila;
+
+    @Value("${tabela.stream.threads-envio:4}")
+    private int threadsEnvio;
+
+    private ExecutorService envio;
+
+    private final Set<Inscrito> inscritos = ConcurrentHashMap.newKeySet();
+
+    // o resto do estado so e mexido dentro de synchronized (publicar e inscrever)
+    private final Map<Integer, LinhaEnviada> enviadas = new HashMap<>();
+
+    private final Deque<Frame> recentes = new ArrayDeque<>();
+
+    private long sequencia;
+
+    private long versaoEnviada = -1;
+
+    private Frame completa;
+
+    @PostConstruct
+    void iniciar() {
+        envio = Executors.newFixedThreadPool(threadsEnvio, Thread.ofVirtual().name("tabela-stream-", 0).factory());
+    }
+
+    @PreDestroy
+    void encerrarEnvio() {
+        envio.shutdownNow();
+    }
+
+    public SseEmitter inscrever(Long ultimaSequencia) {
+        SseEmitter emitter = new SseEmitter(timeout);
+        inscrever(emitter, ultimaSequencia);
+        return emitter;
+    }
+
+    // os frames que faltam entram na fila dentro do lock, entao nenhum frame
+    // publicado depois se perde nem chega duas vezes
+    synchronized void inscrever(SseEmitter emitter, Long ultimaSequencia) {
+        Inscrito inscrito = new Inscrito(emitter, new ArrayBlockingQueue<>(tamanhoFila));
+        emitter.onCompletion(inscrito::encerrar);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(erro -> inscrito.encerrar());
+        for (Frame frame : getFramesDesde(ultimaSequencia)) {
+            inscrito.entregar(frame);
+        }
+        inscritos.add(inscrito);
+    }
+
+    public int getInscritos() {
+        return inscritos.size();
+    }
+
+    @Scheduled(fixedDelayString = "${tabela.stream.intervalo:500}")
+    public synchronized void publicar() {
+        // a versao e lida antes da classificacao: se mudar no meio, o proximo
+        // ciclo ve a versao nova e compara de novo
+        long versao = tabelaMaterializada.getVersao();
+        if (versao == versaoEnviada) {
+            return;
+        }
+        versaoEnviada = versao;
+
+        List<LinhaTabela> classificacao = tabelaMaterializada.getClassificacao();
+        Map<Integer, LinhaEnviada> atuais = new HashMap<>();
+        List<LinhaAlteradaDTO> alteradas = new ArrayList<>();
+        for (int i = 0; i < classificacao.size(); i++) {
+            LinhaEnviada linha = new LinhaEnviada(i + 1, classificacao.get(i));
+            atuais.put(linha.linha().idTime(), linha);
+            if (!linha.equals(enviadas.get(linha.linha().idTime()))) {
+                alteradas.add(LinhaAlteradaDTO.convert(linha.posicao(), linha.linha()));
+            }
+        }
+        // um frame parcial nao tem como dizer que uma linha saiu (um time que
+        // sumiu numa reconstrucao): nesse caso vai a tabela completa, e quem
+        // retoma depois dela tambem a recebe
+        boolean removidas = !atuais.keySet().containsAll(enviadas.keySet());
+        enviadas.clear();
+        enviadas.putAll(atuais);
+        if (alteradas.isEmpty() && !removidas) {
+            return;
+        }
+
+        sequencia++;
+        completa = null;
+        Frame frame = removidas ? getFramesDesde(null).getFirst() : serializar(false, alteradas);
+        recentes.addLast(frame);
+        while (recentes.size() > framesGuardados) {
+            recentes.removeFirst();
+        }
+
+        for (Inscrito inscrito : inscritos) {
+            inscrito.entregar(frame);
+        }
+    }
+
+    // frames que faltam para quem ja viu ate ultimaSequencia, ou a tabela
+    // completa na sequencia atual
+    synchronized List<Frame> getFramesDesde(Long ultimaSequencia) {
+        if (ultimaSequencia != null && ultimaSequencia <= sequencia
+                && (recentes.isEmpty() ? ultimaSequencia == sequencia
+                : recentes.getFirst().sequencia() <= ultimaSequencia + 1)) {
+            return recentes.stream().filter(frame -> frame.sequencia() > ultimaSequencia).toList();
+        }
+        if (completa == null) {
+            List<LinhaAlteradaDTO> linhas = enviadas.values().stream()
+                    .sorted((a, b) -> Integer.compare(a.posicao(), b.posicao()))
+                    .map(linha -> LinhaAlteradaDTO.convert(linha.posicao(), linha.linha()))
+                    .toList();
+            completa = serializar(true, linhas);
+        }
+        return List.of(completa);
+    }
+
+    private Frame serializar(boolean tabelaCompleta, List<LinhaAlteradaDTO> linhas) {
+        try {
+            return new Frame(sequencia,
+                    objectMapper.writeValueAsString(new AlteracaoTabelaDTO(sequencia, tabelaCompleta, linhas)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("falha ao serializar alteracao da tabela", e);
+        }
+    }
+
+    // o json e o mesmo para todos os inscritos, serializado uma vez por frame
+    private static void enviar(SseEmitter emitter, Frame frame) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(String.valueOf(frame.sequencia()))
+                .name("tabela")
+                .data(frame.json(), MediaType.APPLICATION_JSON));
+    }
+
+    record Frame(long sequencia, String json) {
+    }
+
+    private final class Inscrito {
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<Frame> fila;
+
+        // true enquanto ha uma tarefa de envio agendada ou rodando para a fila
+        private final AtomicBoolean agendado = new AtomicBoolean();
+
+        Inscrito(SseEmitter emitter, BlockingQueue<Frame> fila) {
+            this.emitter = emitter;
+            this.fila = fila;
+        }
+
+        // sempre dentro do synchronized do servico, e nunca espera: com a fila
+        // cheia o cliente nao esta dando conta, e o que estava nela e trocado
+        // pela tabela completa, que ja inclui este frame
+        void entregar(Frame frame) {
+            if (!fila.offer(frame)) {
+                fila.clear();
+                fila.offer(getFramesDesde(null).getFirst());
+            }
+            agendar();
+        }
+
+        private void agendar() {
+            if (agendado.compareAndSet(false, true)) {
+                try {
+                    envio.execute(this::enviarFila);
+                } catch (RejectedExecutionException e) {
+                    // servico encerrando
+                }
+            }
+        }
+
+        private void enviarFila() {
+            try {
+                Frame frame;
+                while ((frame = fila.poll()) != null) {
+                    enviar(emitter, frame);
+                }
+            } catch (IOException e) {
+                // cliente que caiu; o container avisa o emitter tambem. agendado
+                // fica true e nada mais e enviado para ele
+                encerrar();
+                return;
+            }
+            agendado.set(false);
+            // um frame que entrou entre o ultimo poll e o set acima nao agendou
+            if (!fila.isEmpty()) {
+                agendar();
+            }
+        }
+
+        void encerrar() {
+            inscritos.remove(this);
+            fila.clear();
+        }
+    }
+
+    private record LinhaEnviada(int posicao, LinhaTabela linha) {
+    }
+}
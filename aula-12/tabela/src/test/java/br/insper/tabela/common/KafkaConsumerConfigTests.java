@@ -0,0 +1,40 @@
+package br.insper.tabela.common;
+
+import br.insper.partida.contrato.PartidaEvento;
+import br.insper.partida.contrato.PartidaEventoCodec;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class KafkaConsumerConfigTests {
+
+    @Test
+    public void testEventoEmJsonDeAntesDoCodecViraNulo() {
+        Deserializer<PartidaEvento> deserializer = KafkaConsumerConfig.getValueDeserializer();
+        byte[] legado = """
+                {"id":1,"nomeMandante":"time-1","nomeVisitante":"time-2","placarMandante":1,"placarVisitante":0,"status":"REALIZADA"}
+                """.getBytes(StandardCharsets.UTF_8);
+
+        Assertions.assertNull(deserializer.deserialize("partidas", legado));
+    }
+
+    @Test
+    public void testEventoDoCodecELido() {
+        Deserializer<PartidaEvento> deserializer = KafkaConsumerConfig.getValueDeserializer();
+        PartidaEvento evento = new PartidaEvento();
+        evento.setId(1);
+        evento.setIdMandante(1);
+        evento.setIdVisitante(2);
+        evento.setPlacarMandante(1);
+        evento.setPlacarVisitante(0);
+        evento.setStatus("REALIZADA");
+        evento.setVersao(3L);
+
+        PartidaEvento lido = deserializer.deserialize("partidas", PartidaEventoCodec.encode(evento));
+
+        Assertions.assertEquals(1, lido.getId());
+        Assertions.assertEquals(3L, lido.getVersao());
+    }
+}
@@ -0,0 +1,62 @@
+package br.insper.tabela.tabela;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class ChaveClassificacaoTests {
+
+    @Test
+    public void testChaveSegueOsCriteriosNaOrdem() {
+        long base = ChaveClassificacao.de(10, 3, 2, 8, 5);
+
+        Assertions.assertTrue(ChaveClassificacao.de(11, 0, -20, 0, 9) > base);
+        Assertions.assertTrue(ChaveClassificacao.de(10, 4, -20, 0, 9) > base);
+        Assertions.assertTrue(ChaveClassificacao.de(10, 3, 3, 0, 9) > base);
+        Assertions.assertTrue(ChaveClassificacao.de(10, 3, 2, 9, 9) > base);
+        Assertions.assertTrue(ChaveClassificacao.de(10, 3, 2, 8, 4) > base);
+        Assertions.assertTrue(ChaveClassificacao.de(0, 0, -4096, 0, ChaveClassificacao.MAX_TIMES - 1) >= 0);
+    }
+
+    @Test
+    public void testChaveGuardaOOrdinal() {
+        Assertions.assertEquals(0, ChaveClassificacao.ordinal(ChaveClassificacao.de(3, 1, -1, 0, 0)));
+        Assertions.assertEquals(1999, ChaveClassificacao.ordinal(ChaveClassificacao.de(3, 1, 1, 2, 1999)));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ChaveClassificacao.de(0, 0, 0, 0, ChaveClassificacao.MAX_TIMES));
+    }
+
+    @Test
+    public void testOrdenarChavesDaAMesmaOrdemQueOComparator() {
+        Random random = new Random(7);
+        List<LinhaTabela> linhas = new ArrayList<>();
+        long[] chaves = new long[2000];
+        for (int i = 0; i < chaves.length; i++) {
+            int vitorias = random.nextInt(40);
+            int empates = random.nextInt(40);
+            int golsPro = random.nextInt(150);
+            LinhaTabela linha = new LinhaTabela(i, "time-" + i, vitorias * 3 + empates, vitorias, golsPro,
+                    random.nextInt(150));
+            linhas.add(linha);
+            chaves[i] = ChaveClassificacao.de(linha, i);
+        }
+
+        linhas.sort(Comparator.comparingInt(LinhaTabela::pontos)
+                .thenComparingInt(LinhaTabela::vitorias)
+                .thenComparingInt(LinhaTabela::saldoGols)
+                .thenComparingInt(LinhaTabela::golsPro)
+                .reversed()
+                .thenComparing(LinhaTabela::idTime));
+        Arrays.sort(chaves);
+
+        for (int i = 0; i < chaves.length; i++) {
+            Assertions.assertEquals(linhas.get(i).idTime(),
+                    ChaveClassificacao.ordinal(chaves[chaves.length - 1 - i]));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package br.insper.tabela.tabela;
+
+import br.insper.partida.contrato.PartidaEvento;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static br.insper.tabela.tabela.TabelaMaterializadaTests.getPartida;
+import static br.insper.tabela.tabela.TabelaMaterializadaTests.getRecords;
+
+@ExtendWith(MockitoExtension.class)
+public class HistoricoTabelaServiceTests {
+
+    @InjectMocks
+    HistoricoTabelaService historicoTabelaService;
+
+    @Spy
+    TabelaMaterializada tabelaMaterializada = new TabelaMaterializada();
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(historicoTabelaService, "resultadosPorRodada", 2);
+        ReflectionTestUtils.setField(historicoTabelaService, "maxRodadas", 2);
+    }
+
+    @Test
+    public void testRodadaGuardaAClassificacaoDaqueleMomento() {
+        registrar(getPartida(10, 1L, 1, 2, 1, 0, "REALIZADA"), getPartida(11, 1L, 3, 4, 0, 0, "REALIZADA"));
+        registrar(getPartida(12, 1L, 2, 1, 2, 0, "REALIZADA"));
+
+        // so um resultado desde a rodada 1: a rodada 2 ainda nao fechou
+        Assertions.assertThrows(RodadaNaoEncontradaException.class, () -> historicoTabelaService.getTabela(2));
+        Assertions.assertEquals(List.of("time-1", "time-3", "time-4", "time-2"),
+                historicoTabelaService.getTabela(1).stream().map(TabelaDTO::getTime).toList());
+
+        registrar(getPartida(13, 1L, 3, 4, 0, 3, "REALIZADA"));
+        Assertions.assertEquals(List.of("time-4", "time-2", "time-1", "time-3"),
+                historicoTabelaService.getTabela(2).stream().map(TabelaDTO::getTime).toList());
+        Assertions.assertEquals(List.of("time-1", "time-3", "time-4", "time-2"),
+                historicoTabelaService.getTabela(1).stream().map(TabelaDTO::getTime).toList());
+    }
+
+    @Test
+    public void testRodadasDividemAsLinhasDosTimesQueNaoJogaram() {
+        registrar(getPartida(10, 1L, 1, 2, 1, 0, "REALIZADA"), getPartida(11, 1L, 3, 4, 0, 0, "REALIZADA"));
+        LinhaTabela time1 = getLinha(1);
+        LinhaTabela time3 = getLinha(3);
+        registrar(getPartida(12, 1L, 1, 2, 2, 2, "REALIZADA"), getPartida(13, 1L, 2, 1, 0, 1, "REALIZADA"));
+
+        // o time-3 nao jogou: a rodada 2 aponta para a mesma linha da rodada 1
+        Assertions.assertSame(time3, getLinha(3));
+        Assertions.assertNotEquals(time1, getLinha(1));
+
+        // so as duas ultimas rodadas ficam guardadas
+        registrar(getPartida(14, 1L, 3, 4, 1, 0, "REALIZADA"), getPartida(15, 1L, 4, 3, 1, 0, "REALIZADA"));
+        Assertions.assertThrows(RodadaNaoEncontradaException.class, () -> historicoTabelaService.getTabela(1));
+        Assertions.assertEquals(4, historicoTabelaService.getTabela(3).size());
+    }
+
+    @Test
+    public void testLoteGrandeFechaUmaRodadaACadaResultadosPorRodada() {
+        ReflectionTestUtils.setField(historicoTabelaService, "maxRodadas", 10);
+        TabelaService tabelaService = new TabelaService();
+        ReflectionTestUtils.setField(tabelaService, "tabelaMaterializada", tabelaMaterializada);
+        ReflectionTestUtils.setField(tabelaService, "historicoTabelaService", historicoTabelaService);
+        ReflectionTestUtils.setField(tabelaService, "tabelaSnapshotService", Mockito.mock(TabelaSnapshotService.class));
+
+        tabelaService.registrarResultados(getRecords(0,
+                getPartida(10, 1L, 1, 2, 1, 0, "REALIZADA"),
+                getPartida(11, 1L, 3, 4, 2, 0, "REALIZADA"),
+                getPartida(12, 1L, 2, 1, 3, 0, "REALIZADA"),
+                getPartida(13, 1L, 4, 3, 4, 0, "REALIZADA"),
+                getPartida(14, 1L, 1, 3, 0, 0, "REALIZADA")), Map.of(0, 5L));
+
+        // cinco resultados com duas rodadas de dois: cada rodada e a tabela daquele ponto
+        Assertions.assertEquals(List.of("time-3", "time-1", "time-2", "time-4"),
+                historicoTabelaService.getTabela(1).stream().map(TabelaDTO::getTime).toList());
+        Assertions.assertEquals(List.of("time-4", "time-2", "time-3", "time-1"),
+                historicoTabelaService.getTabela(2).stream().map(TabelaDTO::getTime).toList());
+        Assertions.assertThrows(RodadaNaoEncontradaException.class, () -> historicoTabelaService.getTabela(3));
+    }
+
+    private void registrar(PartidaEvento... partidas) {
+        List<ResultadoPartida> alterados = tabelaMaterializada.registrar(getRecords(0, partidas), Map.of());
+        historicoTabelaService.registrar(alterados.size());
+    }
+
+    // a linha do time na ultima rodada fechada
+    @SuppressWarnings("unchecked")
+    private LinhaTabela getLinha(int idTime) {
+        Map<Integer, List<LinhaTabela>> rodadas =
+                (Map<Integer, List<LinhaTabela>>) ReflectionTestUtils.getField(historicoTabelaService, "rodadas");
+        int ultima = rodadas.keySet().stream().mapToInt(Integer::intValue).max().orElseThrow();
+        return rodadas.get(ultima).stream().filter(linha -> linha.idTime() == idTime).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,127 @@
+package br.insper.tabela.tabela;
+
+import br.insper.partida.contrato.PartidaEvento;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+@ExtendWith(MockitoExtension.class)
+public class ReconstrucaoTabelaServiceTests {
+
+    @InjectMocks
+    ReconstrucaoTabelaService reconstrucaoTabelaService;
+
+    @Spy
+    TabelaMaterializada tabelaMaterializada = new TabelaMaterializada();
+
+    @Mock
+    ConsumerFactory<String, PartidaEvento> consumerFactory;
+
+    @Mock
+    TabelaSnapshotService tabelaSnapshotService;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(reconstrucaoTabelaService, "timeoutPoll", 10L);
+
+        Mockito.when(consumerFactory.createConsumer(Mockito.isNull(), Mockito.anyString(), Mockito.anyString(),
+                        Mockito.any(Properties.class)))
+                .thenAnswer(invocation -> getConsumidor());
+    }
+
+    @Test
+    public void testReconstruirLeTodasAsParticoesETrocaATabela() {
+        // a tabela ao vivo estava errada para a partida 1
+        tabelaMaterializada.registrar(getPartida(1, 2L, 1, 2, 5, 0), 0, 0);
+
+        ReconstrucaoDTO reconstrucao = reconstrucaoTabelaService.reconstruir();
+
+        Assertions.assertEquals(2, reconstrucao.getParticoes());
+        Assertions.assertEquals(3, reconstrucao.getEventos());
+        Assertions.assertEquals(2, reconstrucao.getPartidas());
+        Assertions.assertTrue(reconstrucao.getEventosPorSegundo() > 0);
+
+        Assertions.assertEquals(List.of(
+                new LinhaTabela(4, "time-4", 3, 1, 1, 0),
+                new LinhaTabela(1, "time-1", 1, 0, 1, 1),
+                new LinhaTabela(2, "time-2", 1, 0, 1, 1),
+                new LinhaTabela(3, "time-3", 0, 0, 0, 1)), tabelaMaterializada.getClassificacao());
+        Assertions.assertEquals(Map.of(0, 2L, 1, 1L), tabelaMaterializada.getSnapshot().offsets());
+        Mockito.verify(tabelaSnapshotService).salvarTudo();
+    }
+
+    @Test
+    public void testReconstruirNaoReaplicaResultadoAoVivoAntesDoFimDaLeitura() {
+        // evento antigo, sem versao, com o placar errado: a reconstrucao leu o
+        // offset dele e a versao certa depois, entao ele nao volta na troca
+        tabelaMaterializada.registrar(getPartida(1, null, 1, 2, 5, 0), 0, 0);
+
+        reconstrucaoTabelaService.reconstruir();
+
+        Assertions.assertEquals(List.of(
+                new LinhaTabela(4, "time-4", 3, 1, 1, 0),
+                new LinhaTabela(1, "time-1", 1, 0, 1, 1),
+                new LinhaTabela(2, "time-2", 1, 0, 1, 1),
+                new LinhaTabela(3, "time-3", 0, 0, 0, 1)), tabelaMaterializada.getClassificacao());
+    }
+
+    @Test
+    public void testReconstruirMantemEventoMaisNovoDoListener() {
+        // o listener ja aplicou uma versao da partida 2 que veio depois do fim da leitura
+        tabelaMaterializada.registrar(getPartida(2, 2L, 3, 4, 2, 2), 1, 5);
+
+        reconstrucaoTabelaService.reconstruir();
+
+        Assertions.assertEquals(List.of(
+                new LinhaTabela(3, "time-3", 1, 0, 2, 2),
+                new LinhaTabela(4, "time-4", 1, 0, 2, 2),
+                new LinhaTabela(1, "time-1", 1, 0, 1, 1),
+                new LinhaTabela(2, "time-2", 1, 0, 1, 1)), tabelaMaterializada.getClassificacao());
+        Assertions.assertEquals(Map.of(0, 2L, 1, 6L), tabelaMaterializada.getSnapshot().offsets());
+    }
+
+    // particao 0: partida 1 em duas versoes; particao 1: partida 2
+    private MockConsumer<String, PartidaEvento> getConsumidor() {
+        TopicPartition particao0 = new TopicPartition("partidas", 0);
+        TopicPartition particao1 = new TopicPartition("partidas", 1);
+
+        MockConsumer<String, PartidaEvento> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.updatePartitions("partidas", List.of(
+                new PartitionInfo("partidas", 0, null, null, null),
+                new PartitionInfo("partidas", 1, null, null, null)));
+        consumer.updateBeginningOffsets(Map.of(particao0, 0L, particao1, 0L));
+        consumer.updateEndOffsets(Map.of(particao0, 2L, particao1, 1L));
+        consumer.schedulePollTask(() -> {
+            if (consumer.assignment().contains(particao0)) {
+                consumer.addRecord(new ConsumerRecord<>("partidas", 0, 0, "1", getPartida(1, 1L, 1, 2, 2, 0)));
+                consumer.addRecord(new ConsumerRecord<>("partidas", 0, 1, "1", getPartida(1, 2L, 1, 2, 1, 1)));
+            } else {
+                consumer.addRecord(new ConsumerRecord<>("partidas", 1, 0, "2", getPartida(2, 1L, 3, 4, 0, 1)));
+            }
+        });
+        return consumer;
+    }
+
+    private static PartidaEvento getPartida(int id, Long versao, int idMandante, int idVisitante,
+                                            int placarMandante, int placarVisitante) {
+        return TabelaMaterializadaTests.getPartida(id, versao, idMandante, idVisitante,
+                placarMandante, placarVisitante, "REALIZADA");
+    }
+}
@@ -0,0 +1,91 @@
+package br.insper.tabela.tabela;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class TabelaControllerTests {
+
+    @InjectMocks
+    TabelaController tabelaController;
+
+    @Mock
+    TabelaService tabelaService;
+
+    @Mock
+    ReconstrucaoTabelaService reconstrucaoTabelaService;
+
+    @Mock
+    HistoricoTabelaService historicoTabelaService;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(tabelaController)
+                .setControllerAdvice(new TabelaAdvice())
+                .build();
+    }
+
+    @Test
+    public void testGetTabelaDevolveOJsonComETag() throws Exception {
+        getTabelaSerializada();
+
+        mockMvc.perform(get("/tabela"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(content().contentType("application/json"))
+                .andExpect(content().string("[{\"time\":\"time-1\"}]"));
+    }
+
+    @Test
+    public void testGetTabelaComIfNoneMatchIgualDevolve304() throws Exception {
+        getTabelaSerializada();
+        mockMvc.perform(get("/tabela").header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(content().bytes(new byte[0]));
+
+        mockMvc.perform(get("/tabela").header(HttpHeaders.IF_NONE_MATCH, "\"velho\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testGetTabelaDeUmaRodada() throws Exception {
+        Mockito.when(historicoTabelaService.getTabela(2))
+                .thenReturn(List.of(new TabelaDTO("time-1", 3, 1, 2, 0)));
+        Mockito.when(historicoTabelaService.getTabela(9))
+                .thenThrow(new RodadaNaoEncontradaException("Rodada nao encontrada"));
+
+        mockMvc.perform(get("/tabela").param("rodada", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].time").value("time-1"))
+                .andExpect(jsonPath("$[0].pontos").value(3));
+        mockMvc.perform(get("/tabela").param("rodada", "9"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.codigo").value(404));
+        Mockito.verify(tabelaService, Mockito.never()).getTabelaSerializada();
+    }
+
+    private void getTabelaSerializada() {
+        Mockito.when(tabelaService.getTabelaSerializada()).thenReturn(new TabelaSerializada(3L,
+                "[{\"time\":\"time-1\"}]".getBytes(StandardCharsets.UTF_8), "\"abc\""));
+    }
+}
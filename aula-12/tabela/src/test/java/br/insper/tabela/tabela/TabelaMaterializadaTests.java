@@ -0,0 +1,288 @@
+package br.insper.tabela.tabela;
+
+import br.insper.partida.contrato.PartidaEvento;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TabelaMaterializadaTests {
+
+    private static final AtomicInteger PROXIMA_PARTIDA = new AtomicInteger();
+
+    @Test
+    public void testRegistrarOrdenaPorPontosSaldoEGolsPro() {
+        TabelaMaterializada tabela = new TabelaMaterializada();
+
+        tabela.registrar(getPartida(1, 2, 3, 0, "REALIZADA"), 0, 0);
+        tabela.registrar(getPartida(3, 4, 1, 0, "REALIZADA"), 0, 1);
+        tabela.registrar(getPartida(1, 3, 1, 1, "REALIZADA"), 0, 2);
+
+        List<LinhaTabela> classificacao = tabela.getClassificacao();
+
+        Assertions.assertEquals(List.of(1, 3, 4, 2), classificacao.stream().map(LinhaTabela::idTime).toList());
+        Assertions.assertEquals(4, classificacao.get(0).pontos());
+        Assertions.assertEquals(4, classificacao.get(0).golsPro());
+        Assertions.assertEquals(1, classificacao.get(0).golsContra());
+        Assertions.assertEquals(4, classificacao.get(1).pontos());
+        Assertions.assertEquals(1, classificacao.get(1).saldoGols());
+    }
+
+    @Test
+    public void testRegistrarIgnoraPartidaNaoRealizadaMasAvancaOffset() {
+        TabelaMaterializada tabela = new TabelaMaterializada();
+
+        tabela.registrar(getPartida(1, 2, 0, 0, "AGENDADA"), 2, 41);
+
+        Assertions.assertTrue(tabela.getClassificacao().isEmpty());
+        Assertions.assertEquals(Map.of(2, 42L), tabela.getSnapshot().offsets());
+    }
+
+    @Test
+    public void testCarregarRecalculaLinhasDosResultados() {
+        TabelaMaterializada tabela = new TabelaMaterializada();
+        tabela.registrar(getPartida(1, 2, 1, 0, "REALIZADA"), 0, 0);
+
+        tabela.carregar(List.of(
+                new ResultadoPartida(10, 1L, 5, "time-5", 6, "time-6", 0, 2, true),
+                new ResultadoPartida(11, 3L, 6, "time-6", 7, "time-7", 1, 1, true),
+                new ResultadoPartida(12, 0L, 5, "time-5", 7, "time-7", null, null, false)), Map.of(0, 7L));
+
+        Assertions.assertEquals(List.of(
+                new LinhaTabela(6, "time-6", 4, 1, 3, 1),
+                new LinhaTabela(7, "time-7", 1, 0, 1, 1),
+                new LinhaTabela(5, "time-5", 0, 0, 0, 2)), tabela.getClassificacao());
+        Assertions.assertEquals(Map.of(0, 7L), tabela.getSnapshot().offsets());
+    }
+
+    @Test
+    public void testRegistrarLoteAplicaSoOEventoMaisNovoDeCadaPartida() {
+        TabelaMaterializada tabela = new TabelaMaterializada();
+
+        List<ResultadoPartida> alterados = tabela.registrar(getRecords(0,
+                getPartida(10, 1L, 1, 2, 3, 0, "REALIZADA"),
+                getPartida(11, 1L, 2, 3, 1, 1, "REALIZADA"),
+                getPartida(10, 2L, 1, 2, 0, 1, "REALIZADA"),
+                getPartida(11, 1L, 2, 3, 1, 1, "REALIZADA")), Map.of(0, 4L, 1, 9L));
+
+        Assertions.assertEquals(List.of(10, 11), alterados.stream().map(ResultadoPartida::idPartida).toList());
+        Assertions.assertEquals(2L, alterados.get(0).versao());
+        Assertions.assertEquals(List.of(
+                new LinhaTabela(2, "time-2", 4, 1, 2, 1),
+                new LinhaTabela(3, "time-3", 1, 0, 1, 1),
+                new LinhaTabela(1, "time-1", 0, 0, 0, 1)), tabela.getClassificacao());
+        Assertions.assertEquals(Map.of(0, 4L, 1, 9L), tabela.getSnapshot().offsets());
+
+        // o mesmo lote entregue de novo nao muda nada e nao gera gravacao
+        Assertions.assertTrue(tabela.registrar(getRecords(0, getPartida(10, 2L, 1, 2, 0, 1, "REALIZADA")),
+                Map.of(0, 4L)).isEmpty());
+    }
+
+    @Test
+    public void testRegistrarDescartaEventoRepetido() {
+        TabelaMaterializada tabela = new TabelaMaterializada();
+
+        tabela.registrar(getPartida(10, 1L, 1, 2, 2, 0, "REALIZADA"), 0, 0);
+        tabela.registrar(getPartida(10, 1L, 1, 2, 2, 0, "REALIZADA"), 0, 0);
+
+        Assertions.assertEquals(List.of(new LinhaTabela(1, "time-1", 3, 1, 2, 0),
+                new LinhaTabela(2, "time-2", 0, 0, 0, 2)), tabela.getClassificacao());
+    }
+
+    @Test
+    public void testRegistrarCorrecaoRetiraResultadoAnterior() {
+        TabelaMaterializada tabela = new TabelaMaterializada();
+
+        tabela.registrar(getPartida(10, 1L, 1, 2, 2, 0, "REALIZADA"), 0, 0);
+        tabela.registrar(getPartida(10, 2L, 1, 2, 1, 1, "REALIZADA"), 0, 1);
+        // a versao 1 chegando de novo depois da correcao nao pode voltar o placar
+        tabela.registrar(getPartida(10, 1L, 1, 2, 2, 0, "REALIZADA"), 0, 2);
+
+        Assertions.assertEquals(List.of(new LinhaTabela(1, "time-1", 1, 0, 1, 1),
+                new LinhaTabela(2, "time-2", 1, 0, 1, 1)), tabela.getClassificacao());
+        Assertions.assertEquals(List.of(new ResultadoPartida(10, 2L, 1, "time-1", 2, "time-2", 1, 1, true)),
+                tabela.getSnapshot().partidas());
+    }
+
+    @Test
+    public void testRegistrarPartidaQueVoltaANaoRealizada() {
+        TabelaMaterializada tabela = new TabelaMaterializada();
+
+        tabela.registrar(getPartida(10, 1L, 1, 2, 0, 3, "REALIZADA"), 0, 0);
+        tabela.registrar(getPartida(10, 2L, 1, 2, null, null, "AGENDADA"), 0, 1);
+
+        Assertions.assertEquals(List.of(new LinhaTabela(1, "time-1", 0, 0, 0, 0),
+                new LinhaTabela(2, "time-2", 0, 0, 0, 0)), tabela.getClassificacao());
+    }
+
+    @Test
+    public void testLeituraConcorrenteNuncaPerdeTime() throws Exception {
+        TabelaMaterializada tabela = new TabelaMaterializada();
+        for (int time = 1; time <= 20; time += 2) {
+            tabela.registrar(getPartida(time, time + 1, 1, 1, "REALIZADA"), 0, time);
+        }
+
+        AtomicBoolean escrevendo = new AtomicBoolean(true);
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            List<Future<?>> escritores = List.of(0, 1).stream()
+                    .<Future<?>>map(particao -> executor.submit(() -> {
+                        for (int i = 0; i < 20_000; i++) {
+                            int mandante = 1 + (i * 7 + particao) % 20;
+                            int visitante = 1 + (mandante + 4) % 20;
+                            tabela.registrar(getPartida(mandante, visitante, i % 3, i % 2, "REALIZADA"),
+                                    particao, i);
+                        }
+                    }))
+                    .toList();
+
+            Future<?> leitor = executor.submit(() -> {
+                while (escrevendo.get()) {
+                    List<LinhaTabela> classificacao = tabela.getClassificacao();
+                    Assertions.assertEquals(20, classificacao.size());
+                }
+            });
+
+            for (Future<?> escritor : escritores) {
+                escritor.get();
+            }
+            escrevendo.set(false);
+            leitor.get();
+        }
+
+        List<LinhaTabela> classificacao = tabela.getClassificacao();
+        int pontos = classificacao.stream().mapToInt(LinhaTabela::pontos).sum();
+        int golsPro = classificacao.stream().mapToInt(LinhaTabela::golsPro).sum();
+        int golsContra = classificacao.stream().mapToInt(LinhaTabela::golsContra).sum();
+        Assertions.assertEquals(golsPro, golsContra);
+        Assertions.assertTrue(pontos > 0);
+        for (int i = 1; i < classificacao.size(); i++) {
+            Assertions.assertTrue(ChaveClassificacao.de(classificacao.get(i - 1), 0)
+                    >= ChaveClassificacao.de(classificacao.get(i), 0));
+        }
+    }
+
+    @Test
+    public void testListenersEmParaleloChegamAoMesmoResultadoQueAFoldSequencial() throws Exception {
+        int particoes = 4;
+        Random random = new Random(42);
+
+        // cada particao tem suas partidas, todas entre os mesmos 20 times, com
+        // correcoes (versoes novas) e reentregas (versoes repetidas) no meio
+        List<List<List<PartidaEvento>>> lotesPorParticao = new ArrayList<>();
+        for (int particao = 0; particao < particoes; particao++) {
+            Map<Integer, Long> versoes = new HashMap<>();
+            List<List<PartidaEvento>> lotes = new ArrayList<>();
+            for (int l = 0; l < 400; l++) {
+                List<PartidaEvento> lote = new ArrayList<>();
+                for (int e = 0; e < 25; e++) {
+                    int idPartida = particao * 1000 + random.nextInt(300);
+                    int mandante = 1 + idPartida % 20;
+                    int visitante = 1 + (idPartida / 20 + mandante) % 20;
+                    if (visitante == mandante) {
+                        visitante = 1 + mandante % 20;
+                    }
+                    long versao = random.nextInt(5) == 0
+                            ? versoes.getOrDefault(idPartida, 1L)
+                            : versoes.merge(idPartida, 1L, Long::sum);
+                    lote.add(getPartida(idPartida, versao, mandante, visitante,
+                            random.nextInt(4), random.nextInt(4), "REALIZADA"));
+                }
+                lotes.add(lote);
+            }
+            lotesPorParticao.add(lotes);
+        }
+
+        TabelaMaterializada sequencial = new TabelaMaterializada();
+        for (int particao = 0; particao < particoes; particao++) {
+            List<List<PartidaEvento>> lotes = lotesPorParticao.get(particao);
+            for (int l = 0; l < lotes.size(); l++) {
+                sequencial.registrar(getRecords(particao, lotes.get(l)), Map.of(particao, (long) l + 1));
+            }
+        }
+
+        TabelaMaterializada paralela = new TabelaMaterializada();
+        CountDownLatch largada = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(particoes)) {
+            List<Future<?>> listeners = new ArrayList<>();
+            for (int particao = 0; particao < particoes; particao++) {
+                int p = particao;
+                listeners.add(executor.submit(() -> {
+                    largada.await();
+                    List<List<PartidaEvento>> lotes = lotesPorParticao.get(p);
+                    for (int l = 0; l < lotes.size(); l++) {
+                        paralela.registrar(getRecords(p, lotes.get(l)), Map.of(p, (long) l + 1));
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> listener : listeners) {
+                listener.get();
+            }
+        }
+
+        // as linhas sao as mesmas e na mesma ordem; so times empatados em tudo
+        // podem trocar de lugar, porque o ordinal vem da ordem de chegada
+        Assertions.assertEquals(new HashSet<>(sequencial.getClassificacao()), new HashSet<>(paralela.getClassificacao()));
+        Assertions.assertEquals(
+                sequencial.getClassificacao().stream().map(linha -> ChaveClassificacao.de(linha, 0)).toList(),
+                paralela.getClassificacao().stream().map(linha -> ChaveClassificacao.de(linha, 0)).toList());
+        Assertions.assertEquals(new HashSet<>(sequencial.getSnapshot().partidas()),
+                new HashSet<>(paralela.getSnapshot().partidas()));
+        Assertions.assertEquals(sequencial.getSnapshot().offsets(), paralela.getSnapshot().offsets());
+
+        // e a soma das linhas bate com os resultados que ficaram valendo
+        int gols = paralela.getSnapshot().partidas().stream()
+                .mapToInt(resultado -> resultado.placarMandante() + resultado.placarVisitante())
+                .sum();
+        Assertions.assertEquals(gols, paralela.getClassificacao().stream().mapToInt(LinhaTabela::golsPro).sum());
+        Assertions.assertEquals(gols, paralela.getClassificacao().stream().mapToInt(LinhaTabela::golsContra).sum());
+    }
+
+    // um lote da particao, com offsets a partir de 0
+    static List<ConsumerRecord<String, PartidaEvento>> getRecords(int particao, PartidaEvento... partidas) {
+        return getRecords(particao, List.of(partidas));
+    }
+
+    static List<ConsumerRecord<String, PartidaEvento>> getRecords(int particao, List<PartidaEvento> partidas) {
+        List<ConsumerRecord<String, PartidaEvento>> records = new ArrayList<>();
+        for (PartidaEvento partida : partidas) {
+            records.add(new ConsumerRecord<>("partidas", particao, records.size(), null, partida));
+        }
+        return records;
+    }
+
+    // cada chamada e uma partida nova, na versao 1
+    static PartidaEvento getPartida(int idMandante, int idVisitante, int placarMandante, int placarVisitante,
+                                    String status) {
+        return getPartida(PROXIMA_PARTIDA.incrementAndGet(), 1L, idMandante, idVisitante,
+                placarMandante, placarVisitante, status);
+    }
+
+    static PartidaEvento getPartida(int id, Long versao, int idMandante, int idVisitante,
+                                    Integer placarMandante, Integer placarVisitante, String status) {
+        PartidaEvento partida = new PartidaEvento();
+        partida.setId(id);
+        partida.setVersao(versao);
+        partida.setIdMandante(idMandante);
+        partida.setIdVisitante(idVisitante);
+        partida.setNomeMandante("time-" + idMandante);
+        partida.setNomeVisitante("time-" + idVisitante);
+        partida.setPlacarMandante(placarMandante);
+        partida.setPlacarVisitante(placarVisitante);
+        partida.setStatus(status);
+        return partida;
+    }
+}
@@ -0,0 +1,56 @@
+package br.insper.tabela.tabela;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static br.insper.tabela.tabela.TabelaMaterializadaTests.getPartida;
+import static br.insper.tabela.tabela.TabelaMaterializadaTests.getRecords;
+
+@ExtendWith(MockitoExtension.class)
+public class TabelaServiceTests {
+
+    @InjectMocks
+    TabelaService tabelaService;
+
+    @Spy
+    TabelaMaterializada tabelaMaterializada = new TabelaMaterializada();
+
+    @Mock
+    TabelaSnapshotService tabelaSnapshotService;
+
+    @Mock
+    HistoricoTabelaService historicoTabelaService;
+
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testTabelaSerializadaSoMudaQuandoATabelaMuda() throws Exception {
+        tabelaService.registrarResultados(getRecords(0, getPartida(10, 1L, 1, 2, 2, 0, "REALIZADA")), Map.of(0, 1L));
+
+        TabelaSerializada primeira = tabelaService.getTabelaSerializada();
+        Assertions.assertSame(primeira, tabelaService.getTabelaSerializada());
+        Assertions.assertEquals(List.of("time-1", "time-2"), objectMapper.readTree(primeira.json())
+                .findValuesAsText("time"));
+        Assertions.assertTrue(primeira.etag().startsWith("\"") && primeira.etag().endsWith("\""));
+
+        // lote repetido: a classificacao nao muda e o json tambem nao
+        tabelaService.registrarResultados(getRecords(0, getPartida(10, 1L, 1, 2, 2, 0, "REALIZADA")), Map.of(0, 2L));
+        Assertions.assertSame(primeira, tabelaService.getTabelaSerializada());
+
+        tabelaService.registrarResultados(getRecords(0, getPartida(10, 2L, 1, 2, 0, 2, "REALIZADA")), Map.of(0, 3L));
+        TabelaSerializada segunda = tabelaService.getTabelaSerializada();
+        Assertions.assertNotEquals(primeira.etag(), segunda.etag());
+        Assertions.assertEquals(List.of("time-2", "time-1"), objectMapper.readTree(segunda.json())
+                .findValuesAsText("time"));
+    }
+}
@@ -0,0 +1,127 @@
+package br.insper.tabela.tabela;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@ExtendWith(MockitoExtension.class)
+public class TabelaSnapshotServiceTests {
+
+    @InjectMocks
+    TabelaSnapshotService tabelaSnapshotService;
+
+    @Spy
+    TabelaMaterializada tabelaMaterializada = new TabelaMaterializada();
+
+    @Mock
+    TabelaSnapshotRepository tabelaSnapshotRepository;
+
+    @Mock
+    MongoTemplate mongoTemplate;
+
+    @Mock
+    BulkOperations bulkOperations;
+
+    @Test
+    public void testCarregarRestauraResultadosEOffsets() {
+        TabelaSnapshot snapshot = new TabelaSnapshot();
+        snapshot.setOffsets(Map.of("0", 10L, "1", 4L));
+
+        Mockito.when(mongoTemplate.findAll(ResultadoPartida.class))
+                .thenReturn(List.of(new ResultadoPartida(10, 1L, 1, "time-1", 2, "time-2", 2, 0, true)));
+        Mockito.when(tabelaSnapshotRepository.findById(TabelaSnapshotService.ID_SNAPSHOT))
+                .thenReturn(Optional.of(snapshot));
+
+        Map<Integer, Long> offsets = tabelaSnapshotService.carregar();
+
+        Assertions.assertEquals(Map.of(0, 10L, 1, 4L), offsets);
+        Assertions.assertEquals(List.of(new LinhaTabela(1, "time-1", 3, 1, 2, 0),
+                new LinhaTabela(2, "time-2", 0, 0, 0, 2)), tabelaMaterializada.getClassificacao());
+
+        // um rebalance depois do primeiro nao recarrega por cima do estado atual
+        tabelaSnapshotService.carregar();
+        Mockito.verify(tabelaSnapshotRepository, Mockito.times(1)).findById(TabelaSnapshotService.ID_SNAPSHOT);
+    }
+
+    @Test
+    public void testSalvarGravaResultadosEmUmBulkAntesDosOffsets() {
+        Mockito.when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ResultadoPartida.class))
+                .thenReturn(bulkOperations);
+
+        tabelaSnapshotService.salvar(List.of(
+                new ResultadoPartida(10, 1L, 1, "time-1", 2, "time-2", 2, 0, true),
+                new ResultadoPartida(11, 1L, 3, "time-3", 4, "time-4", 1, 1, true)), Map.of(0, 8L));
+
+        var ordem = Mockito.inOrder(bulkOperations, mongoTemplate);
+        ordem.verify(bulkOperations, Mockito.times(2))
+                .replaceOne(Mockito.any(Query.class), Mockito.any(ResultadoPartida.class),
+                        Mockito.any(FindAndReplaceOptions.class));
+        ordem.verify(bulkOperations).execute();
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        ordem.verify(mongoTemplate).upsert(Mockito.any(Query.class), update.capture(),
+                Mockito.eq(TabelaSnapshot.class));
+        Assertions.assertEquals(8L, update.getValue().getUpdateObject().get("$max", Map.class).get("offsets.0"));
+    }
+
+    @Test
+    public void testSalvarReenviaResultadosDeUmFlushQueFalhou() {
+        Mockito.when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ResultadoPartida.class))
+                .thenReturn(bulkOperations);
+        Mockito.when(bulkOperations.execute())
+                .thenThrow(new IllegalStateException("mongo fora"))
+                .thenReturn(null);
+
+        ResultadoPartida resultado = new ResultadoPartida(10, 1L, 1, "time-1", 2, "time-2", 2, 0, true);
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> tabelaSnapshotService.salvar(List.of(resultado), Map.of(0, 1L)));
+        Mockito.verify(mongoTemplate, Mockito.never())
+                .upsert(Mockito.any(Query.class), Mockito.any(Update.class), Mockito.eq(TabelaSnapshot.class));
+
+        // a reentrega do lote nao muda a tabela, mas o resultado pendente vai junto
+        tabelaSnapshotService.salvar(List.of(), Map.of(0, 1L));
+
+        Mockito.verify(bulkOperations, Mockito.times(2))
+                .replaceOne(Mockito.any(Query.class), Mockito.eq(resultado), Mockito.any(FindAndReplaceOptions.class));
+        Mockito.verify(mongoTemplate).upsert(Mockito.any(Query.class), Mockito.any(Update.class),
+                Mockito.eq(TabelaSnapshot.class));
+    }
+
+    @Test
+    public void testSalvarIgnoraVersaoMaisNovaJaGravadaPorOutroListener() {
+        Mockito.when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ResultadoPartida.class))
+                .thenReturn(bulkOperations);
+        BulkWriteError duplicada = new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 0);
+        Mockito.when(bulkOperations.execute()).thenThrow(new BulkOperationException("duplicada",
+                new MongoBulkWriteException(BulkWriteResult.unacknowledged(), List.of(duplicada), null,
+                        new ServerAddress(), Set.of())));
+
+        tabelaSnapshotService.salvar(List.of(
+                new ResultadoPartida(10, 1L, 1, "time-1", 2, "time-2", 2, 0, true)), Map.of(0, 1L));
+
+        Mockito.verify(mongoTemplate).upsert(Mockito.any(Query.class), Mockito.any(Update.class),
+                Mockito.eq(TabelaSnapshot.class));
+    }
+}
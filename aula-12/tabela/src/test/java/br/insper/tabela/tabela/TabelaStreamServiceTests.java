@@ -0,0 +1,218 @@
+package br.insper.tabela.tabela;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static br.insper.tabela.tabela.TabelaMaterializadaTests.getPartida;
+import static br.insper.tabela.tabela.TabelaMaterializadaTests.getRecords;
+
+@ExtendWith(MockitoExtension.class)
+public class TabelaStreamServiceTests {
+
+    @InjectMocks
+    TabelaStreamService tabelaStreamService;
+
+    @Spy
+    TabelaMaterializada tabelaMaterializada = new TabelaMaterializada();
+
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(tabelaStreamService, "framesGuardados", 2);
+        ReflectionTestUtils.setField(tabelaStreamService, "tamanhoFila", 2);
+        ReflectionTestUtils.setField(tabelaStreamService, "threadsEnvio", 2);
+        tabelaStreamService.iniciar();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        tabelaStreamService.encerrarEnvio();
+    }
+
+    @Test
+    public void testPublicarJuntaOsLotesDoIntervaloEMandaSoAsLinhasQueMudaram() throws Exception {
+        tabelaMaterializada.registrar(getPartida(10, 1L, 1, 2, 1, 0, "REALIZADA"), 0, 0);
+        tabelaMaterializada.registrar(getPartida(11, 1L, 3, 4, 0, 0, "REALIZADA"), 0, 1);
+        tabelaStreamService.publicar();
+
+        JsonNode primeiro = getFrame(0L);
+        Assertions.assertEquals(1, primeiro.get("sequencia").asLong());
+        Assertions.assertEquals(4, primeiro.get("linhas").size());
+
+        // sem mudanca na tabela nao sai frame
+        tabelaStreamService.publicar();
+        Assertions.assertTrue(tabelaStreamService.getFramesDesde(1L).isEmpty());
+
+        // duas correcoes no mesmo intervalo: o time-4 vence e sobe para 2o, o
+        // time-2 sobe por desempate e o time-3 cai; o time-1 nao se mexe e nao vem
+        tabelaMaterializada.registrar(getPartida(11, 2L, 3, 4, 1, 1, "REALIZADA"), 0, 2);
+        tabelaMaterializada.registrar(getPartida(11, 3L, 3, 4, 0, 1, "REALIZADA"), 0, 3);
+        tabelaStreamService.publicar();
+
+        JsonNode segundo = getFrame(1L);
+        Assertions.assertEquals(2, segundo.get("sequencia").asLong());
+        Assertions.assertFalse(segundo.get("completa").asBoolean());
+        Assertions.assertEquals(List.of("time-4", "time-2", "time-3"), segundo.findValuesAsText("time"));
+        Assertions.assertEquals(List.of("2", "3", "4"), segundo.findValuesAsText("posicao"));
+    }
+
+    @Test
+    public void testQuemFicouParaTrasDemaisRecebeATabelaCompleta() throws Exception {
+        for (long versao = 1; versao <= 4; versao++) {
+            tabelaMaterializada.registrar(getPartida(10, versao, 1, 2, (int) versao % 2, 0, "REALIZADA"),
+                    0, versao);
+            tabelaStreamService.publicar();
+        }
+
+        // so as duas ultimas ficam guardadas
+        Assertions.assertEquals(2, tabelaStreamService.getFramesDesde(2L).size());
+
+        JsonNode completa = getFrame(1L);
+        Assertions.assertTrue(completa.get("completa").asBoolean());
+        Assertions.assertEquals(4, completa.get("sequencia").asLong());
+        Assertions.assertEquals(List.of("time-1", "time-2"), completa.findValuesAsText("time"));
+        Assertions.assertEquals(1, tabelaStreamService.getFramesDesde(null).size());
+    }
+
+    @Test
+    public void testTimeQueSumiuNaReconstrucaoSaiDaTabelaCompleta() throws Exception {
+        tabelaMaterializada.registrar(getPartida(10, 1L, 1, 2, 1, 0, "REALIZADA"), 0, 0);
+        tabelaMaterializada.registrar(getPartida(11, 1L, 3, 4, 0, 0, "REALIZADA"), 0, 1);
+        tabelaStreamService.publicar();
+
+        // a reconstrucao nao encontrou a partida 11: time-3 e time-4 somem
+        tabelaMaterializada.substituir(List.of(getPartida(10, 1L, 1, 2, 1, 0, "REALIZADA")), Map.of(0, 2L));
+        tabelaStreamService.publicar();
+
+        // quem retoma recebe a tabela completa que os tira, e nao um frame
+        // parcial que os deixaria na tela
+        JsonNode retomada = getFrame(1L);
+        Assertions.assertTrue(retomada.get("completa").asBoolean());
+        Assertions.assertEquals(2, retomada.get("sequencia").asLong());
+        Assertions.assertEquals(List.of("time-1", "time-2"), retomada.findValuesAsText("time"));
+        Assertions.assertEquals(List.of("time-1", "time-2"), getFrame(null).findValuesAsText("time"));
+    }
+
+    @Test
+    public void testInscritoRecebeOsFramesEInscritoQueCaiuSai() throws Exception {
+        tabelaMaterializada.registrar(getPartida(10, 1L, 1, 2, 1, 0, "REALIZADA"), 0, 0);
+        tabelaStreamService.publicar();
+
+        SseEmitter emitter = Mockito.mock(SseEmitter.class);
+        SseEmitter caiu = Mockito.mock(SseEmitter.class);
+        tabelaStreamService.inscrever(emitter, 1L);
+        tabelaStreamService.inscrever(caiu, null);
+        Mockito.verify(caiu, Mockito.timeout(1000)).send(Mockito.any(SseEmitter.SseEventBuilder.class));
+        Mockito.verify(emitter, Mockito.never()).send(Mockito.any(SseEmitter.SseEventBuilder.class));
+        Assertions.assertEquals(2, tabelaStreamService.getInscritos());
+
+        Mockito.doThrow(new IOException("broken pipe")).when(caiu).send(Mockito.any(SseEmitter.SseEventBuilder.class));
+        tabelaMaterializada.registrar(getRecords(0, getPartida(10, 2L, 1, 2, 0, 0, "REALIZADA")), Map.of(0, 2L));
+        tabelaStreamService.publicar();
+
+        Mockito.verify(emitter, Mockito.timeout(1000)).send(Mockito.any(SseEmitter.SseEventBuilder.class));
+        aguardarInscritos(1);
+    }
+
+    @Test
+    public void testInscritoLentoNaoSeguraOsOutrosEPulaParaATabelaCompleta() throws Exception {
+        tabelaMaterializada.registrar(getPartida(10, 1L, 1, 2, 1, 0, "REALIZADA"), 0, 0);
+        tabelaStreamService.publicar();
+
+        CountDownLatch enviando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        SseEmitter lento = Mockito.mock(SseEmitter.class);
+        Mockito.doAnswer(invocation -> {
+            enviando.countDown();
+            liberar.await();
+            return null;
+        }).when(lento).send(Mockito.any(SseEmitter.SseEventBuilder.class));
+        SseEmitter rapido = Mockito.mock(SseEmitter.class);
+        tabelaStreamService.inscrever(lento, 1L);
+        tabelaStreamService.inscrever(rapido, 1L);
+
+        // o lento fica preso no envio do frame 2; os frames 3 e 4 enchem a fila
+        // dele e o 5 troca a fila pela tabela completa
+        publicar(2);
+        Assertions.assertTrue(enviando.await(1, TimeUnit.SECONDS));
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            for (long versao = 3; versao <= 5; versao++) {
+                publicar(versao);
+            }
+        });
+        Mockito.verify(rapido, Mockito.timeout(1000).times(4)).send(Mockito.any(SseEmitter.SseEventBuilder.class));
+
+        liberar.countDown();
+        ArgumentCaptor<SseEmitter.SseEventBuilder> eventos = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        Mockito.verify(lento, Mockito.timeout(1000).times(2)).send(eventos.capture());
+        String ultimo = eventos.getValue().build().stream()
+                .map(dado -> String.valueOf(dado.getData()))
+                .filter(dado -> dado.startsWith("{"))
+                .findFirst().orElseThrow();
+        Assertions.assertTrue(objectMapper.readTree(ultimo).get("completa").asBoolean());
+        Assertions.assertEquals(5, objectMapper.readTree(ultimo).get("sequencia").asLong());
+    }
+
+    @Test
+    public void testUmaThreadDeEnvioAtendeTodosOsInscritos() throws Exception {
+        tabelaStreamService.encerrarEnvio();
+        ReflectionTestUtils.setField(tabelaStreamService, "threadsEnvio", 1);
+        tabelaStreamService.iniciar();
+        tabelaMaterializada.registrar(getPartida(10, 1L, 1, 2, 1, 0, "REALIZADA"), 0, 0);
+        tabelaStreamService.publicar();
+
+        List<SseEmitter> emitters = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            SseEmitter emitter = Mockito.mock(SseEmitter.class);
+            tabelaStreamService.inscrever(emitter, 1L);
+            emitters.add(emitter);
+        }
+        for (long versao = 2; versao <= 3; versao++) {
+            publicar(versao);
+        }
+
+        for (SseEmitter emitter : emitters) {
+            Mockito.verify(emitter, Mockito.timeout(1000).times(2)).send(Mockito.any(SseEmitter.SseEventBuilder.class));
+        }
+    }
+
+    private void publicar(long versao) {
+        tabelaMaterializada.registrar(getPartida(10, versao, 1, 2, (int) versao % 3, 1, "REALIZADA"), 0, versao);
+        tabelaStreamService.publicar();
+    }
+
+    private void aguardarInscritos(int esperados) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (tabelaStreamService.getInscritos() != esperados && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(esperados, tabelaStreamService.getInscritos());
+    }
+
+    // o primeiro frame que falta para quem viu ate ultimaSequencia
+    private JsonNode getFrame(Long ultimaSequencia) throws Exception {
+        return objectMapper.readTree(tabelaStreamService.getFramesDesde(ultimaSequencia).get(0).json());
+    }
+}